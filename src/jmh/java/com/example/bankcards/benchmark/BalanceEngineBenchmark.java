@@ -0,0 +1,103 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.BalanceEngineProperties;
+import com.example.bankcards.entity.BalanceLedgerEntry;
+import com.example.bankcards.service.balance.BalanceEngine;
+import com.example.bankcards.service.balance.BalanceLedgerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Переводы под перекошенной нагрузкой (80% списаний с одной "горячей" карты):
+ * движок балансов против блокировки на карту, повторяющей сериализацию JPA-пути на строке.
+ * Ввод-вывод БД сюда не входит — сравнение с реальной базой делает нагрузочный тест.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class BalanceEngineBenchmark {
+
+    private static final int CARDS = 1_000;
+    private static final BigDecimal INITIAL = BigDecimal.valueOf(1_000_000_000L);
+
+    private BalanceEngine engine;
+    private final ConcurrentHashMap<Long, BigDecimal> rowBalances = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setUp() {
+        BalanceEngineProperties properties = new BalanceEngineProperties();
+        properties.setShards(8);
+        engine = new BalanceEngine(properties, new BalanceLedgerService(null, null) {
+            @Override
+            public BigDecimal loadBalance(Long cardId) {
+                return INITIAL;
+            }
+
+            @Override
+            public void append(List<BalanceLedgerEntry> entries) {
+            }
+
+            @Override
+            public void apply(List<BalanceLedgerEntry> entries) {
+            }
+
+            @Override
+            public int applyPending(int batchSize) {
+                return 0;
+            }
+        });
+        engine.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        engine.stop();
+    }
+
+    @Benchmark
+    public void balanceEngine() {
+        long from = skewedCard();
+        engine.transfer(from, otherCard(from), BigDecimal.ONE);
+    }
+
+    @Benchmark
+    public void lockPerCardBaseline() {
+        long from = skewedCard();
+        long to = otherCard(from);
+        ReentrantLock first = rowLocks.computeIfAbsent(Math.min(from, to), id -> new ReentrantLock());
+        ReentrantLock second = rowLocks.computeIfAbsent(Math.max(from, to), id -> new ReentrantLock());
+        first.lock();
+        second.lock();
+        try {
+            BigDecimal fromBalance = rowBalances.getOrDefault(from, INITIAL);
+            if (fromBalance.compareTo(BigDecimal.ONE) >= 0) {
+                rowBalances.put(from, fromBalance.subtract(BigDecimal.ONE));
+                rowBalances.put(to, rowBalances.getOrDefault(to, INITIAL).add(BigDecimal.ONE));
+            }
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    private static long skewedCard() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextInt(10) < 8 ? 1L : 1L + random.nextInt(CARDS);
+    }
+
+    private static long otherCard(long from) {
+        long to = 1L + ThreadLocalRandom.current().nextInt(CARDS);
+        return to == from ? (from % CARDS) + 1 : to;
+    }
+}
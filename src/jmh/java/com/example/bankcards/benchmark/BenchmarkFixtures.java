@@ -0,0 +1,56 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.controller.CardController;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.service.CardService;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    // maskCardNumber и маппинг не трогают репозитории, поэтому зависимости сервиса не нужны
+    static CardService cardServiceWithoutDependencies() {
+        try {
+            Constructor<?> constructor = CardService.class.getDeclaredConstructors()[0];
+            return (CardService) constructor.newInstance(new Object[constructor.getParameterCount()]);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MethodHandle cardControllerToDto(CardController controller) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(CardController.class, MethodHandles.lookup());
+            return lookup.findVirtual(CardController.class, "toDto",
+                    MethodType.methodType(com.example.bankcards.dto.response.CardResponseDto.class, Card.class))
+                    .bindTo(controller);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static List<Card> cards(int count) {
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Card card = new Card();
+            card.setId((long) i + 1);
+            card.setNumber(String.format("4276%012d", i));
+            card.setExpiryDate(LocalDate.of(2030, 1, 1).plusDays(i));
+            card.setStatus(i % 10 == 0 ? CardStatus.BLOCKED : CardStatus.ACTIVE);
+            card.setBalance(BigDecimal.valueOf(i * 100L, 2));
+            cards.add(card);
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.controller.CardController;
+import com.example.bankcards.dto.response.CardResponseDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.CardService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardMappingBenchmark {
+
+    private CardService cardService;
+    private MethodHandle toDto;
+    private List<Card> cards;
+
+    @Setup
+    public void setUp() {
+        cardService = BenchmarkFixtures.cardServiceWithoutDependencies();
+        toDto = BenchmarkFixtures.cardControllerToDto(new CardController(cardService, null));
+        cards = BenchmarkFixtures.cards(100);
+    }
+
+    @Benchmark
+    public String maskCardNumber() {
+        return cardService.maskCardNumber(cards.get(0).getNumber());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void toDtoPage(Blackhole blackhole) throws Throwable {
+        for (Card card : cards) {
+            blackhole.consume((CardResponseDto) toDto.invokeExact(card));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.util.CardNumberEncryptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardNumberEncryptorBenchmark {
+
+    private CardNumberEncryptor encryptor;
+    private String cardNumber;
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setAesKey("MySecretKey12345");
+        encryptor = new CardNumberEncryptor(properties);
+        cardNumber = "4276123456789012";
+        encrypted = encryptor.convertToDatabaseColumn(cardNumber);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptor.convertToDatabaseColumn(cardNumber);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptor.convertToEntityAttribute(encrypted);
+    }
+
+    @Benchmark
+    public String roundTrip() {
+        return encryptor.convertToEntityAttribute(encryptor.convertToDatabaseColumn(cardNumber));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.exception.dto.ErrorResponseDto;
+import com.example.bankcards.exception.handler.ExceptionHandler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность пути ошибок 404/403: исключение бросается на заданной глубине стека
+ * и обрабатывается {@link ExceptionHandler}. legacyNotFound — прежнее поведение: полный стек
+ * и новый ответ на каждую ошибку.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "100"})
+    private int stackDepth;
+
+    private ExceptionHandler handler;
+
+    @Setup
+    public void setUp() {
+        handler = new ExceptionHandler(Duration.ofSeconds(10));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponseDto> cardNotFound() {
+        return handle(ErrorStatus.CARD_NOT_FOUND);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponseDto> forbiddenOperation() {
+        return handle(ErrorStatus.FORBIDDEN_OPERATION);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponseDto> legacyNotFound() {
+        try {
+            throwLegacy(stackDepth);
+            return null;
+        } catch (LegacyApiErrorException e) {
+            return ResponseEntity.status(e.errorStatus.getHttpStatus())
+                    .body(new ErrorResponseDto(e.errorStatus.getMessage()));
+        }
+    }
+
+    private ResponseEntity<ErrorResponseDto> handle(ErrorStatus status) {
+        try {
+            throwApiError(stackDepth, status);
+            return null;
+        } catch (ApiErrorException e) {
+            return handler.handleApiException(e);
+        }
+    }
+
+    private static void throwApiError(int depth, ErrorStatus status) {
+        if (depth == 0) {
+            throw new ApiErrorException(status);
+        }
+        throwApiError(depth - 1, status);
+    }
+
+    private static void throwLegacy(int depth) {
+        if (depth == 0) {
+            throw new LegacyApiErrorException(ErrorStatus.CARD_NOT_FOUND);
+        }
+        throwLegacy(depth - 1);
+    }
+
+    private static class LegacyApiErrorException extends RuntimeException {
+
+        private final ErrorStatus errorStatus;
+
+        LegacyApiErrorException(ErrorStatus errorStatus) {
+            super(errorStatus.getMessage());
+            this.errorStatus = errorStatus;
+        }
+    }
+}
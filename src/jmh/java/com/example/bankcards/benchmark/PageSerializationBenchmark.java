@@ -0,0 +1,50 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.response.CardResponseDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.CardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<CardResponseDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        CardService cardService = BenchmarkFixtures.cardServiceWithoutDependencies();
+        List<Card> cards = BenchmarkFixtures.cards(pageSize);
+        List<CardResponseDto> content = cards.stream()
+                .map(c -> new CardResponseDto(c.getId(), cardService.maskCardNumber(c.getNumber()),
+                        c.getExpiryDate(), c.getStatus(), c.getBalance()))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
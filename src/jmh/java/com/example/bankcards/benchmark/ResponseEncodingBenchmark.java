@@ -0,0 +1,77 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.SlimPageModule;
+import com.example.bankcards.dto.response.CardResponseDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.CardService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время сериализации страницы карт в JSON (текущий ответ) и бинарные форматы со slim-конвертом.
+ * Размер ответа в байтах печатается при подготовке каждого варианта.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    @Param({"json", "json-slim", "cbor", "smile"})
+    private String format;
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<CardResponseDto> page;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "json" -> mapper(new JsonFactory(), false);
+            case "json-slim" -> mapper(new JsonFactory(), true);
+            case "cbor" -> mapper(new CBORFactory(), true);
+            case "smile" -> mapper(new SmileFactory(), true);
+            default -> throw new IllegalArgumentException(format);
+        };
+
+        CardService cardService = BenchmarkFixtures.cardServiceWithoutDependencies();
+        List<Card> cards = BenchmarkFixtures.cards(pageSize);
+        List<CardResponseDto> content = cards.stream()
+                .map(c -> new CardResponseDto(c.getId(), cardService.maskCardNumber(c.getNumber()),
+                        c.getExpiryDate(), c.getStatus(), c.getBalance()))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+
+        System.out.printf("%n%s, pageSize=%d: %d bytes%n", format, pageSize, objectMapper.writeValueAsBytes(page).length);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory, boolean slimPage) {
+        ObjectMapper mapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (slimPage) {
+            mapper.registerModule(new SlimPageModule());
+        }
+        return mapper;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.BankApplication;
+import liquibase.integration.spring.SpringLiquibase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время холодного старта приложения на H2: каждый замер — первый запуск контекста в новом JVM-форке.
+ * Схема мигрируется заранее, как у реплики, стартующей на уже обновлённой базе.
+ * default — обычный старт (с проверкой changelog Liquibase), replica — профиль replica.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"default", "replica"})
+    private String mode;
+
+    private String url;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void migrate() throws Exception {
+        url = "jdbc:h2:mem:startup-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(url, "sa", ""));
+        liquibase.setChangeLog("classpath:db/migration/changelog-1.0.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        context = SpringApplication.run(BankApplication.class,
+                "--server.port=0",
+                "--spring.profiles.active=" + ("replica".equals(mode) ? "replica" : "default"),
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        return context;
+    }
+}
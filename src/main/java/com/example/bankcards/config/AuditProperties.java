@@ -0,0 +1,41 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+    private boolean enabled = true;
+    private Mode mode = Mode.ASYNC;
+    private int bufferCapacity = 8192;
+    private int batchSize = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private long blockTimeoutMs = 50;
+    private int writeAttempts = 3;
+    private long writeRetryBackoffMs = 200;
+    /** Как часто писать в лог о потерянных при переполнении буфера событиях */
+    private Duration dropLogInterval = Duration.ofSeconds(10);
+
+    public enum Mode {
+        /** После коммита в буфер, при переполнении или сбое БД события могут теряться */
+        ASYNC,
+        /**
+         * Запись в audit_outbox в той же транзакции, перенос в audit_events фоном. Таблица отдельная от общего
+         * outbox: строки типизированы и переносятся внутри БД, без JSON и внешнего sink.
+         */
+        OUTBOX
+    }
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK,
+        CALLER_RUNS
+    }
+}
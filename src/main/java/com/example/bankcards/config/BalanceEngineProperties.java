@@ -0,0 +1,18 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "balance-engine")
+public class BalanceEngineProperties {
+    private boolean enabled = false;
+    private int shards = Runtime.getRuntime().availableProcessors();
+    private int flushBatchSize = 500;
+    private long flushRetryBackoffMs = 200;
+    private long operationTimeoutMs = 5000;
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Period;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "card-archive")
+public class CardArchiveProperties {
+    private boolean enabled = true;
+    /** Сколько карта должна пробыть просроченной, прежде чем уйти в архивную партицию. */
+    private Period retention = Period.ofYears(1);
+    private int batchSize = 500;
+    private long pauseBetweenBatchesMs = 50;
+}
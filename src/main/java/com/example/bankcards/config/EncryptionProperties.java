@@ -5,10 +5,29 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @Component
 @ConfigurationProperties(prefix = "encryption")
 public class EncryptionProperties {
+    /** Ключ шифротекстов без префикса версии (записанных до появления связки ключей). */
     private String aesKey;
+    /** Ключ, которым шифруются новые значения; пусто — пишется прежний формат без префикса. */
+    private String activeKeyId;
+    /** Связка ключей: id -> ключ. Все ключи, кроме активного, только расшифровывают. */
+    private Map<String, String> keys = new LinkedHashMap<>();
+    private Rotation rotation = new Rotation();
+
+    @Getter
+    @Setter
+    public static class Rotation {
+        private boolean enabled = false;
+        private int workers = 2;
+        private int batchSize = 200;
+        private long rangeSize = 10_000;
+        private long pauseBetweenBatchesMs = 20;
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.bankcards.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.net.URI;
+
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Менеджер кэшей второго уровня передаётся в Hibernate готовым. По javax.cache.uri Hibernate находит
+     * ресурс как URL, и из собранного jar (jar:nested:...) Caffeine его не читает — конфигурация регионов
+     * терялась, и старт падал на "On-the-fly creation of JCache Cache objects is not supported".
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jcacheManagerCustomizer() {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager",
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                        .getCacheManager(URI.create("classpath:hibernate-cache.conf"), HibernateCacheConfig.class.getClassLoader()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "holds")
+public class HoldProperties {
+    /** Срок жизни холда, после которого неподтверждённая сумма возвращается в доступный остаток. */
+    private Duration ttl = Duration.ofDays(7);
+    private long tickMs = 1000;
+    private int wheelSlots = 512;
+    private int batchSize = 500;
+}
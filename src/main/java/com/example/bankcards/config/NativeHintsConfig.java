@@ -0,0 +1,77 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.BalanceLedgerEntry;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Hold;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardOwnerRef;
+import com.example.bankcards.repository.CardStatusSummary;
+import com.example.bankcards.repository.RoleCount;
+import com.example.bankcards.util.CardNumberEncryptor;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import java.util.List;
+
+/**
+ * Подсказки для native-image (профиль native) там, где AOT Spring их не выводит сам:
+ * конвертер JPA создаётся Hibernate по имени класса, jjwt-impl/jjwt-jackson подключены
+ * только в runtime и ищутся через рефлексию и ServiceLoader, changelog Liquibase и конфиг
+ * кэшей читаются как ресурсы.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.BankRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static final List<String> JJWT_RUNTIME_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class BankRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(CardNumberEncryptor.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            for (String type : JJWT_RUNTIME_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            // сущности с Lombok-аксессорами: Hibernate и Jackson обращаются к полям и методам по рефлексии
+            for (Class<?> entity : List.of(Card.class, User.class, BalanceLedgerEntry.class, Hold.class,
+                    ScheduledTransfer.class)) {
+                hints.reflection().registerType(entity, MemberCategory.values());
+            }
+            for (Class<?> projection : List.of(CardStatusSummary.class, RoleCount.class, CardOwnerRef.class)) {
+                hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+                hints.proxies().registerJdkProxy(projection, TargetAware.class,
+                        SpringProxy.class, DecoratingProxy.class);
+                hints.proxies().registerJdkProxy(projection, SpringProxy.class, Advised.class, DecoratingProxy.class);
+            }
+
+            hints.resources().registerPattern("db/migration/*.yaml");
+            hints.resources().registerPattern("hibernate-cache.conf");
+            hints.resources().registerPattern("reference.conf");
+        }
+    }
+}
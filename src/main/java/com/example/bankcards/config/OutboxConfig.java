@@ -0,0 +1,25 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.service.outbox.FileOutboxSink;
+import com.example.bankcards.service.outbox.InMemoryOutboxSink;
+import com.example.bankcards.service.outbox.LoggingOutboxSink;
+import com.example.bankcards.service.outbox.OutboxSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public OutboxSink outboxSink(OutboxProperties properties) {
+        return switch (properties.getSink()) {
+            case FILE -> new FileOutboxSink(Path.of(properties.getFilePath()));
+            case MEMORY -> new InMemoryOutboxSink();
+            case LOG -> new LoggingOutboxSink();
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.event.CardEventType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+    private boolean enabled = true;
+    private int batchSize = 100;
+    private Sink sink = Sink.LOG;
+    private String filePath = "outbox/notifications.jsonl";
+    private Set<CardEventType> eventTypes =
+            EnumSet.of(CardEventType.TRANSFER, CardEventType.BLOCKED, CardEventType.BLOCK_REQUESTED);
+
+    public enum Sink {
+        /** Только DEBUG-лог без payload; по умолчанию */
+        LOG,
+        /** JSON Lines в file-path; файл не ротируется, включается явно */
+        FILE,
+        /** Накапливает сообщения в памяти, для тестов */
+        MEMORY
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.security.InMemoryRateLimiterBackend;
+import com.example.bankcards.security.RateLimitFilter;
+import com.example.bankcards.security.RateLimiterBackend;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimiterBackend.class)
+    public InMemoryRateLimiterBackend rateLimiterBackend(RateLimitProperties properties) {
+        return new InMemoryRateLimiterBackend(properties.getIdleEviction());
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties,
+                                           RateLimiterBackend rateLimiterBackend,
+                                           ObjectMapper objectMapper) {
+        return new RateLimitFilter(properties, rateLimiterBackend, objectMapper);
+    }
+
+    // Фильтр работает внутри цепочки Spring Security, отдельная регистрация в контейнере не нужна
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "scheduled-transfers")
+public class ScheduledTransferProperties {
+    private boolean enabled = true;
+    private int workers = 4;
+    private int batchSize = 100;
+    /** Сколько строка закреплена за инстансом; если он упал, по истечении срока её заберёт другой. */
+    private Duration lease = Duration.ofMinutes(5);
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+
+/**
+ * Компактная сериализация {@link Page}: только content, number, size и totalElements
+ * вместо полного описания pageable/sort. Подключается к бинарным форматам, JSON не меняется.
+ */
+public class SlimPageModule extends SimpleModule {
+
+    public SlimPageModule() {
+        super("SlimPageModule");
+        addSerializer(new SlimPageSerializer());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static class SlimPageSerializer extends StdSerializer<Page> {
+
+        SlimPageSerializer() {
+            super(Page.class);
+        }
+
+        @Override
+        public void serialize(Page page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName("content");
+            provider.defaultSerializeValue(page.getContent(), gen);
+            gen.writeNumberField("number", page.getNumber());
+            gen.writeNumberField("size", page.getSize());
+            gen.writeNumberField("totalElements", page.getTotalElements());
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "soft-delete")
+public class SoftDeleteProperties {
+    private boolean enabled = true;
+    /** Сколько мягко удалённая запись живёт до физического удаления. */
+    private Duration purgeDelay = Duration.ofMinutes(1);
+    private int batchSize = 1000;
+    private long pauseBetweenBatchesMs = 20;
+}
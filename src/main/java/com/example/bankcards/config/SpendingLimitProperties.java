@@ -0,0 +1,19 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "spending-limit")
+public class SpendingLimitProperties {
+    private boolean enabled = true;
+    /** Через сколько окно трат в памяти перечитывается из card_spending, чтобы учесть переводы других инстансов. */
+    private Duration syncInterval = Duration.ofSeconds(5);
+    private long maxCards = 100_000;
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * При spring.main.lazy-initialization=true (профиль replica) фоновые компоненты должны создаваться сразу:
+     * ленивый бин с @Scheduled никогда не будет запланирован, а потоки из @PostConstruct не стартуют.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter backgroundComponentsEagerFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                SmartLifecycle.class.isAssignableFrom(beanType)
+                        || Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType)).anyMatch(StartupConfig::isBackgroundEntryPoint);
+    }
+
+    private static boolean isBackgroundEntryPoint(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, PostConstruct.class)
+                || AnnotatedElementUtils.hasAnnotation(method, EventListener.class)
+                || AnnotatedElementUtils.hasAnnotation(method, TransactionalEventListener.class);
+    }
+}
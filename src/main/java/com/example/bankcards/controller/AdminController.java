@@ -0,0 +1,30 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.response.AdminStatsResponseDto;
+import com.example.bankcards.service.AdminStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin Controller", description = "Служебные операции администратора")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private final AdminStatsService adminStatsService;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Системная статистика",
+            description = "Доступно только ADMIN. Карты по статусам, общий баланс, карты с истекающим в этом месяце сроком, пользователи по ролям")
+    public AdminStatsResponseDto getStats() {
+        return adminStatsService.getStats();
+    }
+}
@@ -1,10 +1,21 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.request.BlockRequestsApproveDto;
 import com.example.bankcards.dto.request.CardCreateRequestDto;
+import com.example.bankcards.dto.request.CardLimitsRequestDto;
+import com.example.bankcards.dto.request.CardNumberTransferRequestDto;
+import com.example.bankcards.dto.request.CardSearchRequestDto;
+import com.example.bankcards.dto.request.HoldRequestDto;
 import com.example.bankcards.dto.request.TransferRequestDto;
+import com.example.bankcards.dto.response.BlockRequestsApprovalResponseDto;
 import com.example.bankcards.dto.response.CardResponseDto;
+import com.example.bankcards.dto.response.CardSummaryResponseDto;
+import com.example.bankcards.dto.response.HoldResponseDto;
+import com.example.bankcards.dto.response.KeysetPageResponseDto;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Hold;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.CardSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,7 +29,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/cards")
@@ -27,7 +40,10 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class CardController {
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 500;
+
     private final CardService cardService;
+    private final CardSummaryService cardSummaryService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -50,6 +66,14 @@ public class CardController {
         return toDto(cardService.activateCard(id));
     }
 
+    @PutMapping("/{id}/limits")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Установить лимиты переводов карты",
+            description = "Доступно только ADMIN. Лимиты исходящих переводов за скользящие сутки и 30 дней; пустое значение снимает лимит")
+    public CardResponseDto updateLimits(@PathVariable("id") Long id, @Valid @RequestBody CardLimitsRequestDto request) {
+        return toDto(cardService.updateLimits(id, request.getDailyLimit(), request.getMonthlyLimit()));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Удалить карту", description = "Доступно только ADMIN")
@@ -57,6 +81,41 @@ public class CardController {
         cardService.deleteCard(id);
     }
 
+    @GetMapping("/block-requests")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Очередь запросов на блокировку",
+            description = "Доступно только ADMIN. Постраничная выдача по курсору: afterId — id последней карты предыдущей страницы")
+    public KeysetPageResponseDto<CardResponseDto> getBlockRequests(
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_KEYSET_PAGE_SIZE);
+        List<CardResponseDto> items = cardService.getBlockRequests(afterId, limit).stream().map(this::toDto).toList();
+        Long nextCursor = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return new KeysetPageResponseDto<>(items, nextCursor);
+    }
+
+    @PostMapping("/block-requests/approve")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Одобрить запросы на блокировку", description = "Доступно только ADMIN. Блокирует все переданные карты в статусе REQUESTED_BLOCK")
+    public BlockRequestsApprovalResponseDto approveBlockRequests(@Valid @RequestBody BlockRequestsApproveDto request) {
+        List<Long> approved = cardService.approveBlockRequests(request.getCardIds());
+        Set<Long> approvedSet = new HashSet<>(approved);
+        List<Long> skipped = request.getCardIds().stream().distinct().filter(id -> !approvedSet.contains(id)).toList();
+        return new BlockRequestsApprovalResponseDto(approved, skipped);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Поиск карт",
+            description = "Доступно только ADMIN. Нужно указать владельца (ownerId/username), последние 4 цифры или статус; " +
+                    "остальные фильтры уточняют выборку. Постраничная выдача по курсору afterId")
+    public KeysetPageResponseDto<CardResponseDto> searchCards(@Valid @ModelAttribute CardSearchRequestDto request) {
+        int limit = Math.min(Math.max(request.getSize(), 1), MAX_KEYSET_PAGE_SIZE);
+        List<CardResponseDto> items = cardService.searchCards(request, limit).stream().map(this::toDto).toList();
+        Long nextCursor = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return new KeysetPageResponseDto<>(items, nextCursor);
+    }
+
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Получить все карты (с пагинацией)", description = "Доступно только ADMIN")
@@ -78,6 +137,14 @@ public class CardController {
         return cardService.getMyCardsPaged(authentication, pageable).map(this::toDto);
     }
 
+    @GetMapping("/my/summary")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Сводка по моим картам",
+            description = "Количество карт по статусам, общий баланс и ближайший срок действия одним запросом")
+    public CardSummaryResponseDto getMySummary(Authentication authentication) {
+        return cardSummaryService.getMySummary(authentication);
+    }
+
     @PostMapping("/{id}/request-block")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Запрос на блокировку карты", description = "USER может подать запрос на блокировку своей карты")
@@ -105,6 +172,46 @@ public class CardController {
         );
     }
 
+    @PostMapping("/transfer/card")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Перевод на карту по номеру",
+            description = "USER может перевести средства со своей карты на активную карту любого пользователя по её номеру")
+    public void transferToCard(@Valid @RequestBody CardNumberTransferRequestDto request, Authentication authentication) {
+        cardService.transferToCard(
+                request.getFromCardId(),
+                request.getToCardNumber(),
+                request.getAmount(),
+                authentication
+        );
+    }
+
+    @PostMapping("/{id}/holds")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Поставить холд на карту",
+            description = "USER может зарезервировать сумму на своей карте; холд снимается автоматически по истечении срока")
+    public HoldResponseDto placeHold(@PathVariable Long id, @Valid @RequestBody HoldRequestDto request,
+                                     Authentication authentication) {
+        return toDto(cardService.placeHold(id, request.getAmount(), authentication));
+    }
+
+    @PostMapping("/holds/{holdId}/capture")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Подтвердить холд", description = "Списывает зарезервированную сумму с баланса карты")
+    public HoldResponseDto captureHold(@PathVariable Long holdId, Authentication authentication) {
+        return toDto(cardService.captureHold(holdId, authentication));
+    }
+
+    @PostMapping("/holds/{holdId}/release")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Отменить холд", description = "Возвращает зарезервированную сумму в доступный остаток")
+    public HoldResponseDto releaseHold(@PathVariable Long holdId, Authentication authentication) {
+        return toDto(cardService.releaseHold(holdId, authentication));
+    }
+
+    private HoldResponseDto toDto(Hold hold) {
+        return new HoldResponseDto(hold.getId(), hold.getCardId(), hold.getAmount(), hold.getStatus(), hold.getExpiresAt());
+    }
+
     private CardResponseDto toDto(Card card) {
         CardResponseDto dto = new CardResponseDto();
         dto.setId(card.getId());
@@ -0,0 +1,56 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.request.ScheduledTransferRequestDto;
+import com.example.bankcards.dto.response.ScheduledTransferResponseDto;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.service.scheduled.ScheduledTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/scheduled-transfers")
+@RequiredArgsConstructor
+@Tag(name = "Scheduled Transfer Controller", description = "Плановые и регулярные переводы между своими картами (USER)")
+@SecurityRequirement(name = "bearerAuth")
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService scheduledTransferService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Запланировать перевод",
+            description = "Разовый (без repeat) или регулярный перевод между своими картами; время — UTC")
+    public ScheduledTransferResponseDto create(@Valid @RequestBody ScheduledTransferRequestDto request,
+                                               Authentication authentication) {
+        return toDto(scheduledTransferService.create(request.getFromCardId(), request.getToCardId(),
+                request.getAmount(), request.getFirstRunAt(), request.getRepeat(), authentication));
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Мои плановые переводы", description = "Постранично, сначала новые")
+    public Page<ScheduledTransferResponseDto> getMy(Authentication authentication, Pageable pageable) {
+        return scheduledTransferService.getMy(authentication, pageable).map(this::toDto);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Отменить плановый перевод", description = "Отменить можно только активный перевод")
+    public void cancel(@PathVariable Long id, Authentication authentication) {
+        scheduledTransferService.cancel(id, authentication);
+    }
+
+    private ScheduledTransferResponseDto toDto(ScheduledTransfer transfer) {
+        return new ScheduledTransferResponseDto(transfer.getId(), transfer.getFromCardId(), transfer.getToCardId(),
+                transfer.getAmount(), transfer.getRepeatPeriod(), transfer.getStatus(), transfer.getNextRunAt(),
+                transfer.getLastRunAt(), transfer.getLastOutcome());
+    }
+}
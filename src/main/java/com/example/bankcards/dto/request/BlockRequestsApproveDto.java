@@ -0,0 +1,18 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockRequestsApproveDto {
+
+    @NotEmpty(message = "Список карт не должен быть пустым")
+    @Size(max = 1000, message = "Не более 1000 карт за один запрос")
+    private List<Long> cardIds;
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardLimitsRequestDto {
+
+    @DecimalMin(value = "0.00", message = "Лимит не может быть отрицательным")
+    private BigDecimal dailyLimit;
+
+    @DecimalMin(value = "0.00", message = "Лимит не может быть отрицательным")
+    private BigDecimal monthlyLimit;
+}
@@ -0,0 +1,27 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardNumberTransferRequestDto {
+
+    @NotNull(message = "ID карты-отправителя обязателен")
+    private Long fromCardId;
+
+    @NotBlank(message = "Номер карты-получателя обязателен")
+    @Pattern(regexp = "[0-9 ]{12,23}", message = "Номер карты должен состоять из цифр")
+    private String toCardNumber;
+
+    @NotNull(message = "Сумма перевода обязательна")
+    @DecimalMin(value = "0.01", message = "Сумма должна быть больше 0")
+    private BigDecimal amount;
+}
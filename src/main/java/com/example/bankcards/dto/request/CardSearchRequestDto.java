@@ -0,0 +1,34 @@
+package com.example.bankcards.dto.request;
+
+import com.example.bankcards.entity.CardStatus;
+import jakarta.validation.constraints.Pattern;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSearchRequestDto {
+    private CardStatus status;
+    private Long ownerId;
+    private String username;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiryFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiryTo;
+
+    private BigDecimal balanceMin;
+    private BigDecimal balanceMax;
+
+    @Pattern(regexp = "\\d{4}", message = "Нужно указать последние 4 цифры номера")
+    private String last4;
+
+    private Long afterId;
+    private int size = 50;
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldRequestDto {
+
+    @NotNull(message = "Сумма холда обязательна")
+    @DecimalMin(value = "0.01", message = "Сумма должна быть больше 0")
+    private BigDecimal amount;
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransferRequestDto {
+
+    @NotNull(message = "ID карты-отправителя обязателен")
+    private Long fromCardId;
+
+    @NotNull(message = "ID карты-получателя обязателен")
+    private Long toCardId;
+
+    @NotNull(message = "Сумма перевода обязательна")
+    @DecimalMin(value = "0.01", message = "Сумма должна быть больше 0")
+    private BigDecimal amount;
+
+    /** Время первого перевода (UTC); если не задано или уже прошло — как можно скорее. */
+    private LocalDateTime firstRunAt;
+
+    /** Период повтора в ISO-8601 (P1D, P1W, P1M); пусто — разовый перевод. */
+    private String repeat;
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class AdminStatsResponseDto {
+    private long totalCards;
+    private Map<CardStatus, Long> cardsByStatus;
+    private BigDecimal totalBalance;
+    private long cardsExpiringThisMonth;
+    private Map<Role, Long> usersByRole;
+    private Instant lastReconciledAt;
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockRequestsApprovalResponseDto {
+    private List<Long> approvedIds;
+    /** Карты, которые не найдены или уже не в статусе REQUESTED_BLOCK */
+    private List<Long> skippedIds;
+}
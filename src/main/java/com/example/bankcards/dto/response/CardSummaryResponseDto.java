@@ -0,0 +1,19 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class CardSummaryResponseDto {
+    private long totalCards;
+    private Map<CardStatus, Long> cardsByStatus;
+    private BigDecimal totalBalance;
+    /** Ближайший срок действия среди неистёкших карт */
+    private LocalDate soonestExpiry;
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.HoldStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldResponseDto {
+    private Long id;
+    private Long cardId;
+    private BigDecimal amount;
+    private HoldStatus status;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageResponseDto<T> {
+    private List<T> items;
+    /** Значение afterId для следующей страницы, null если страница последняя */
+    private Long nextCursor;
+}
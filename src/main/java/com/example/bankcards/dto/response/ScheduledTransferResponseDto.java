@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.ScheduledTransferStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransferResponseDto {
+    private Long id;
+    private Long fromCardId;
+    private Long toCardId;
+    private BigDecimal amount;
+    private String repeat;
+    private ScheduledTransferStatus status;
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastRunAt;
+    private String lastOutcome;
+}
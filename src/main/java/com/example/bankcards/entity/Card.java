@@ -3,12 +3,17 @@ package com.example.bankcards.entity;
 import com.example.bankcards.util.CardNumberEncryptor;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "cards")
+@DynamicUpdate
+@SQLRestriction("deleted_at is null")
 @NoArgsConstructor
 @AllArgsConstructor
 @Setter
@@ -24,6 +29,9 @@ public class Card {
     @Column(name = "number_encrypted", nullable = false, unique = true)
     private String number;
 
+    @Column(name = "number_last4", length = 4)
+    private String last4;
+
     @Column(name = "expiry_date", nullable = false)
     private LocalDate expiryDate;
 
@@ -34,7 +42,54 @@ public class Card {
     @Column(nullable = false)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    /** Сумма активных холдов; поддерживается вместе с holds, чтобы не суммировать их на каждый запрос. */
+    @Column(name = "held_amount", nullable = false)
+    @Builder.Default
+    private BigDecimal heldAmount = BigDecimal.ZERO;
+
+    /** Лимит исходящих переводов за скользящие сутки; null — без лимита. */
+    @Column(name = "daily_limit")
+    private BigDecimal dailyLimit;
+
+    /** Лимит исходящих переводов за скользящие 30 дней; null — без лимита. */
+    @Column(name = "monthly_limit")
+    private BigDecimal monthlyLimit;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    /** Ключ партиционирования cards: архивные карты лежат в отдельной холодной партиции. */
+    @Column(nullable = false)
+    private boolean archived;
+
+    /** Момент мягкого удаления; строку физически удаляет SoftDeletePurger. */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    public Card(Long id, String number, LocalDate expiryDate, CardStatus status, BigDecimal balance, User user) {
+        this(id, number, lastFourDigits(number), expiryDate, status, balance, BigDecimal.ZERO, null, null, user, false, null);
+    }
+
+    /** Остаток, доступный для переводов и новых холдов. */
+    public BigDecimal getAvailableBalance() {
+        BigDecimal held = heldAmount != null ? heldAmount : BigDecimal.ZERO;
+        return balance.subtract(held);
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+        this.last4 = lastFourDigits(number);
+    }
+
+    @PrePersist
+    void fillLast4() {
+        if (last4 == null) {
+            last4 = lastFourDigits(number);
+        }
+    }
+
+    public static String lastFourDigits(String number) {
+        return number != null && number.length() >= 4 ? number.substring(number.length() - 4) : null;
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Отложенный или регулярный перевод между картами владельца. Время — по часам приложения (UTC). */
+@Entity
+@Table(name = "scheduled_transfers")
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Builder
+public class ScheduledTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "from_card_id", nullable = false)
+    private Long fromCardId;
+
+    @Column(name = "to_card_id", nullable = false)
+    private Long toCardId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    /** Период повтора в ISO-8601 (P1D, P1W, P1M); null — разовый перевод. */
+    @Column(name = "repeat_period", length = 32)
+    private String repeatPeriod;
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduledTransferStatus status;
+
+    /** До этого момента строка закреплена за инстансом, который её исполняет. */
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_outcome", length = 32)
+    private String lastOutcome;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
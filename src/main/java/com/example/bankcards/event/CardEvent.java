@@ -0,0 +1,26 @@
+package com.example.bankcards.event;
+
+import com.example.bankcards.entity.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Доменное событие изменения карты. Публикуется из CardService внутри транзакции,
+ * слушатели получают его до или после коммита. Для DELETED в amount — баланс удалённой карты,
+ * для TRANSFER — сумма перевода, для HOLD_* — сумма холда.
+ */
+public record CardEvent(
+        CardEventType type,
+        Long cardId,
+        Long ownerId,
+        CardStatus previousStatus,
+        CardStatus status,
+        LocalDate expiryDate,
+        Long counterpartCardId,
+        BigDecimal amount,
+        String actor,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.event;
+
+public enum CardEventType {
+    CREATED,
+    BLOCKED,
+    ACTIVATED,
+    BLOCK_REQUESTED,
+    EXPIRED,
+    DELETED,
+    ARCHIVED,
+    TRANSFER,
+    HOLD_PLACED,
+    HOLD_CAPTURED,
+    HOLD_RELEASED,
+    HOLD_EXPIRED
+}
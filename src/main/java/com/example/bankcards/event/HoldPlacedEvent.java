@@ -0,0 +1,7 @@
+package com.example.bankcards.event;
+
+import java.time.LocalDateTime;
+
+/** Публикуется при постановке холда; после коммита холд попадает в колесо таймеров истечения. */
+public record HoldPlacedEvent(Long holdId, LocalDateTime expiresAt) {
+}
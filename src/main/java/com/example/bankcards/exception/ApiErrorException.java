@@ -3,13 +3,17 @@ package com.example.bankcards.exception;
 import com.example.bankcards.exception.constant.ErrorStatus;
 import lombok.Getter;
 
+/**
+ * Бизнес-ошибка API. Для клиентских статусов (4xx) стек не заполняется: это штатный
+ * исход запроса, и под нагрузкой перебором id захват стека становится основной стоимостью.
+ */
 @Getter
 public class ApiErrorException extends RuntimeException {
 
     private final ErrorStatus errorStatus;
 
     public ApiErrorException(ErrorStatus errorStatus) {
-        super(errorStatus.getMessage());
+        super(errorStatus.getMessage(), null, false, errorStatus.getHttpStatus().is5xxServerError());
         this.errorStatus = errorStatus;
     }
 }
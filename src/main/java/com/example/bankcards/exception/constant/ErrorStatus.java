@@ -7,9 +7,13 @@ import org.springframework.http.HttpStatus;
 public enum ErrorStatus {
     USER_NOT_FOUND("User not found", HttpStatus.NOT_FOUND),
     CARD_NOT_FOUND("Card not found", HttpStatus.NOT_FOUND),
+    HOLD_NOT_FOUND("Hold not found", HttpStatus.NOT_FOUND),
     INSUFFICIENT_FUNDS("Insufficient funds", HttpStatus.CONFLICT),
     FORBIDDEN_OPERATION("Operation not allowed", HttpStatus.FORBIDDEN),
     VALIDATION_ERROR("Validation failed", HttpStatus.BAD_REQUEST),
+    DAILY_LIMIT_EXCEEDED("Daily spending limit exceeded", HttpStatus.CONFLICT),
+    MONTHLY_LIMIT_EXCEEDED("Monthly spending limit exceeded", HttpStatus.CONFLICT),
+    TOO_MANY_REQUESTS("Too many requests", HttpStatus.TOO_MANY_REQUESTS),
     INTERNAL_ERROR("Internal server error", HttpStatus.INTERNAL_SERVER_ERROR);
 
     private final String message;
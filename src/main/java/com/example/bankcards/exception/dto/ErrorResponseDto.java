@@ -1,4 +1,21 @@
 package com.example.bankcards.exception.dto;
 
+import com.example.bankcards.exception.constant.ErrorStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
 public record ErrorResponseDto(String errorMessage) {
+
+    private static final Map<ErrorStatus, ErrorResponseDto> BY_STATUS = new EnumMap<>(ErrorStatus.class);
+
+    static {
+        for (ErrorStatus status : ErrorStatus.values()) {
+            BY_STATUS.put(status, new ErrorResponseDto(status.getMessage()));
+        }
+    }
+
+    public static ErrorResponseDto of(ErrorStatus errorStatus) {
+        return BY_STATUS.get(errorStatus);
+    }
 }
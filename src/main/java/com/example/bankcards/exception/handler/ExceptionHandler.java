@@ -3,24 +3,44 @@ package com.example.bankcards.exception.handler;
 import com.example.bankcards.exception.ApiErrorException;
 import com.example.bankcards.exception.constant.ErrorStatus;
 import com.example.bankcards.exception.dto.ErrorResponseDto;
+import com.example.bankcards.util.SampledLog;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
 @Slf4j
 @RestControllerAdvice
 public class ExceptionHandler {
 
+    private final Map<ErrorStatus, ResponseEntity<ErrorResponseDto>> responses = new EnumMap<>(ErrorStatus.class);
+    private final Map<ErrorStatus, SampledLog> sampledLogs = new EnumMap<>(ErrorStatus.class);
+    private final long logIntervalNanos;
+
+    public ExceptionHandler(@Value("${error-log.sample-interval:10s}") Duration logInterval) {
+        this.logIntervalNanos = logInterval.toNanos();
+        for (ErrorStatus status : ErrorStatus.values()) {
+            responses.put(status, ResponseEntity.status(status.getHttpStatus()).body(ErrorResponseDto.of(status)));
+            sampledLogs.put(status, new SampledLog());
+        }
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler(ApiErrorException.class)
     public ResponseEntity<ErrorResponseDto> handleApiException(ApiErrorException ex) {
         ErrorStatus errorStatus = ex.getErrorStatus();
 
-        log.warn("Handled business exception: {} ({})",
-                errorStatus.getMessage(), errorStatus.getHttpStatus());
+        // бизнес-ошибки штатные и под перебором идут потоком — пишем не чаще раза в интервал на статус
+        long suppressed = sampledLogs.get(errorStatus).tryAcquire(System.nanoTime(), logIntervalNanos);
+        if (suppressed >= 0 && log.isWarnEnabled()) {
+            log.warn("Handled business exception: {} ({}), {} more since last report",
+                    errorStatus.getMessage(), errorStatus.getHttpStatus(), suppressed);
+        }
 
-        return ResponseEntity
-                .status(errorStatus.getHttpStatus())
-                .body(new ErrorResponseDto(errorStatus.getMessage()));
+        return responses.get(errorStatus);
     }
 
     @org.springframework.web.bind.annotation.ExceptionHandler(org.springframework.web.server.ResponseStatusException.class)
@@ -42,5 +62,4 @@ public class ExceptionHandler {
                 .body(new ErrorResponseDto(errorStatus.getMessage()
                         + ": " + ex.getClass().getSimpleName()));
     }
-
 }
@@ -0,0 +1,26 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.BalanceLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedgerEntry, Long> {
+
+    List<BalanceLedgerEntry> findByAppliedFalseOrderByIdAsc(Pageable pageable);
+
+    @Query("select coalesce(sum(case when e.toCardId = :cardId then e.amount else -e.amount end), 0) " +
+            "from BalanceLedgerEntry e " +
+            "where e.applied = false and (e.fromCardId = :cardId or e.toCardId = :cardId)")
+    BigDecimal sumUnappliedDelta(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("update BalanceLedgerEntry e set e.applied = true where e.id in :ids")
+    int markApplied(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+
+import java.util.Optional;
+
+public interface CardNumberLookup {
+
+    /** Поиск по номеру среди шифротекстов под всеми ключами связки, в том числе ещё не перешифрованных. */
+    Optional<Card> findByNumber(String number);
+
+    /** id активной (не архивной и не удалённой) карты с таким номером — поиск по индексу шифротекстов. */
+    Optional<Long> findActiveIdByNumber(String number);
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.util.CardKeyRing;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.Optional;
+
+class CardNumberLookupImpl implements CardNumberLookup {
+
+    private final CardKeyRing keyRing;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    CardNumberLookupImpl(EncryptionProperties properties) {
+        this.keyRing = new CardKeyRing(properties);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Card> findByNumber(String number) {
+        // без фильтра deleted_at: номер мягко удалённой карты занят до её физического удаления
+        List<Card> cards = entityManager
+                .createNativeQuery("SELECT * FROM cards WHERE number_encrypted IN (:ciphertexts)", Card.class)
+                .setParameter("ciphertexts", keyRing.encryptWithAllKeys(number))
+                .setMaxResults(1)
+                .getResultList();
+        return cards.stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Long> findActiveIdByNumber(String number) {
+        List<Number> ids = entityManager
+                .createNativeQuery("SELECT id FROM cards WHERE number_encrypted IN (:ciphertexts) "
+                        + "AND archived = FALSE AND deleted_at IS NULL")
+                .setParameter("ciphertexts", keyRing.encryptWithAllKeys(number))
+                .setMaxResults(1)
+                .getResultList();
+        return ids.stream().findFirst().map(Number::longValue);
+    }
+}
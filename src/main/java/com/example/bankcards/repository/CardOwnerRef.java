@@ -0,0 +1,11 @@
+package com.example.bankcards.repository;
+
+import java.time.LocalDate;
+
+public interface CardOwnerRef {
+    Long getId();
+
+    Long getUserId();
+
+    LocalDate getExpiryDate();
+}
@@ -1,19 +1,86 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface CardRepository extends JpaRepository<Card, Long> {
+public interface CardRepository extends JpaRepository<Card, Long>, JpaSpecificationExecutor<Card>, CardNumberLookup {
 
-    Optional<Card> findByNumber(String number);
+    // горячие пути читают только активную партицию: условие по archived отсекает архив на этапе планирования
+    @Query("select c from Card c where c.user = :user and c.archived = false")
+    List<Card> findByUser(@Param("user") User user);
 
-    List<Card> findByUser(User user);
+    @Query("select c from Card c where c.user = :user and c.archived = false")
+    Page<Card> findByUser(@Param("user") User user, Pageable pageable);
 
-    Page<Card> findByUser(User user, Pageable pageable);
+    List<Card> findByStatusAndIdGreaterThanOrderByIdAsc(CardStatus status, Long afterId, Pageable pageable);
+
+    @Query(value = "UPDATE cards SET status = 'BLOCKED' " +
+            "WHERE id IN (:ids) AND status = 'REQUESTED_BLOCK' AND archived = false AND deleted_at IS NULL " +
+            "RETURNING id AS id, user_id AS \"userId\", expiry_date AS \"expiryDate\"", nativeQuery = true)
+    List<CardOwnerRef> approveBlockRequests(@Param("ids") Collection<Long> ids);
+
+    List<Card> findByLast4IsNullAndIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("select c.status as status, count(c) as cardCount, coalesce(sum(c.balance), 0) as totalBalance, " +
+            "min(c.expiryDate) as soonestExpiry from Card c where c.user.id = :userId and c.archived = false " +
+            "group by c.status")
+    List<CardStatusSummary> summarizeByUserId(@Param("userId") Long userId);
+
+    @Query("select c.status as status, count(c) as cardCount, coalesce(sum(c.balance), 0) as totalBalance, " +
+            "min(c.expiryDate) as soonestExpiry from Card c group by c.status")
+    List<CardStatusSummary> summarizeAll();
+
+    long countByExpiryDateBetween(LocalDate from, LocalDate to);
+
+    @Query("select c.status as status, count(c) as cardCount, coalesce(sum(c.balance), 0) as totalBalance, " +
+            "min(c.expiryDate) as soonestExpiry from Card c where c.user.id = :userId group by c.status")
+    List<CardStatusSummary> summarizeAllByUserId(@Param("userId") Long userId);
+
+    @Query("select count(c) from Card c where c.user.id = :userId and c.expiryDate between :from and :to")
+    long countByUserIdAndExpiryDateBetween(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    @Query("select c.id from Card c where c.user.id = :userId and c.archived = false")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id = :id")
+    Optional<Card> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select c.user.id from Card c where c.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    @Query("select c.balance from Card c where c.id = :id")
+    Optional<BigDecimal> findBalanceById(@Param("id") Long id);
+
+    // холды удаляемой карты снимаются вместе с ней (HoldRepository.releaseByCardId), поэтому held_amount обнуляется
+    @Modifying
+    @Query("update Card c set c.deletedAt = :now, c.heldAmount = 0 where c.id = :id and c.deletedAt is null")
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Card c set c.deletedAt = :now, c.heldAmount = 0 where c.user.id = :userId and c.deletedAt is null")
+    int softDeleteByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // native: в JPQL Hibernate приводит параметр к numeric($p,$s) без точности, и такой SQL не готовится
+    @Modifying
+    @Query(value = "UPDATE cards SET balance = balance + :delta WHERE id = :id", nativeQuery = true)
+    int addToBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
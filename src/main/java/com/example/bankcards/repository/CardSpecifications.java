@@ -0,0 +1,46 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public final class CardSpecifications {
+
+    private CardSpecifications() {
+    }
+
+    public static Specification<Card> idGreaterThan(Long afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+
+    public static Specification<Card> ownerId(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Card> status(CardStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Card> last4(String last4) {
+        return (root, query, cb) -> cb.equal(root.get("last4"), last4);
+    }
+
+    public static Specification<Card> expiryFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expiryDate"), from);
+    }
+
+    public static Specification<Card> expiryTo(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("expiryDate"), to);
+    }
+
+    public static Specification<Card> balanceMin(BigDecimal min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("balance"), min);
+    }
+
+    public static Specification<Card> balanceMax(BigDecimal max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("balance"), max);
+    }
+}
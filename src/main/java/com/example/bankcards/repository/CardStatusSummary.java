@@ -0,0 +1,16 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface CardStatusSummary {
+    CardStatus getStatus();
+
+    long getCardCount();
+
+    BigDecimal getTotalBalance();
+
+    LocalDate getSoonestExpiry();
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Hold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    // переходы из ACTIVE условные: параллельные capture/release/истечение срабатывают ровно один раз
+    @Modifying
+    @Query("update Hold h set h.status = com.example.bankcards.entity.HoldStatus.CAPTURED " +
+            "where h.id = :id and h.status = com.example.bankcards.entity.HoldStatus.ACTIVE and h.expiresAt > :now")
+    int capture(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Hold h set h.status = com.example.bankcards.entity.HoldStatus.RELEASED " +
+            "where h.id = :id and h.status = com.example.bankcards.entity.HoldStatus.ACTIVE")
+    int release(@Param("id") Long id);
+
+    // при мягком удалении карты её холды снимаются сразу, а не висят до истечения
+    @Modifying
+    @Query("update Hold h set h.status = com.example.bankcards.entity.HoldStatus.RELEASED " +
+            "where h.cardId = :cardId and h.status = com.example.bankcards.entity.HoldStatus.ACTIVE")
+    int releaseByCardId(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("update Hold h set h.status = com.example.bankcards.entity.HoldStatus.RELEASED " +
+            "where h.cardId in (select c.id from Card c where c.user.id = :userId) " +
+            "and h.status = com.example.bankcards.entity.HoldStatus.ACTIVE")
+    int releaseByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Role;
+
+public interface RoleCount {
+    Role getRole();
+
+    long getUserCount();
+}
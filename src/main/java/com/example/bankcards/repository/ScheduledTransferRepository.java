@@ -0,0 +1,33 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.ScheduledTransfer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+
+    Page<ScheduledTransfer> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    // исполнитель сдвигает расписание только у ACTIVE строки, поэтому отменённый перевод уже не выполнится
+    @Modifying
+    @Query("update ScheduledTransfer s set s.status = com.example.bankcards.entity.ScheduledTransferStatus.CANCELLED " +
+            "where s.id = :id and s.userId = :userId and s.status = com.example.bankcards.entity.ScheduledTransferStatus.ACTIVE")
+    int cancel(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("update ScheduledTransfer s set s.status = com.example.bankcards.entity.ScheduledTransferStatus.CANCELLED " +
+            "where (s.fromCardId = :cardId or s.toCardId = :cardId) " +
+            "and s.status = com.example.bankcards.entity.ScheduledTransferStatus.ACTIVE")
+    int cancelByCardId(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("update ScheduledTransfer s set s.status = com.example.bankcards.entity.ScheduledTransferStatus.CANCELLED " +
+            "where s.userId = :userId and s.status = com.example.bankcards.entity.ScheduledTransferStatus.ACTIVE")
+    int cancelByUserId(@Param("userId") Long userId);
+}
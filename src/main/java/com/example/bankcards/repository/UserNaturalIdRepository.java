@@ -0,0 +1,10 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByUsername(String username);
+}
@@ -1,14 +1,34 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
     boolean existsByUsername(String username);
+
+    @Query("select r as role, count(u) as userCount from User u join u.roles r group by r")
+    List<RoleCount> countByRole();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames();
+
+    // массовый update сбрасывает регионы кэша User, включая natural id, — удалённый пользователь не залогинится из кэша
+    @Modifying
+    @Query("update User u set u.deletedAt = :now where u.id = :id and u.deletedAt is null")
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,113 @@
+package com.example.bankcards.security;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Буферизует не больше limit + 1 байт тела; дальше читатель получает сначала буфер,
+ * затем остаток исходного потока. Тело целиком в памяти, только если {@link #isComplete()}.
+ */
+class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] prefix;
+    private final boolean complete;
+    private ServletInputStream inputStream;
+
+    CachedBodyHttpServletRequest(HttpServletRequest request, int limit) throws IOException {
+        super(request);
+        this.prefix = request.getInputStream().readNBytes(limit + 1);
+        this.complete = prefix.length <= limit;
+    }
+
+    byte[] getBody() {
+        return prefix;
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new PrefixedInputStream(super.getInputStream());
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+    }
+
+    private class PrefixedInputStream extends ServletInputStream {
+
+        private final ServletInputStream rest;
+        private int position;
+
+        private PrefixedInputStream(ServletInputStream rest) {
+            this.rest = rest;
+        }
+
+        private boolean prefixRemaining() {
+            return position < prefix.length;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return !prefixRemaining() && (complete || rest.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return prefixRemaining() || complete || rest.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            if (!complete) {
+                // уведомления об остатке тела приходят от контейнера; буфер читается в первом onDataAvailable
+                rest.setReadListener(listener);
+                return;
+            }
+            try {
+                listener.onDataAvailable();
+                listener.onAllDataRead();
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (prefixRemaining()) {
+                return prefix[position++] & 0xff;
+            }
+            return complete ? -1 : rest.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (prefixRemaining()) {
+                int n = Math.min(len, prefix.length - position);
+                System.arraycopy(prefix, position, b, off, n);
+                position += n;
+                return n;
+            }
+            return complete ? -1 : rest.read(b, off, len);
+        }
+    }
+}
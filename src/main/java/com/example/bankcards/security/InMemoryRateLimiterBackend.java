@@ -0,0 +1,43 @@
+package com.example.bankcards.security;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+public class InMemoryRateLimiterBackend implements RateLimiterBackend {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final long idleEvictionNanos;
+    private final LongSupplier nanoClock;
+
+    public InMemoryRateLimiterBackend(Duration idleEviction) {
+        this(idleEviction, System::nanoTime);
+    }
+
+    InMemoryRateLimiterBackend(Duration idleEviction, LongSupplier nanoClock) {
+        this.idleEvictionNanos = idleEviction.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public long tryAcquire(String key, long capacity, double refillPerSecond) {
+        long now = nanoClock.getAsLong();
+        long interval = Math.max(1L, (long) (NANOS_PER_SECOND / refillPerSecond));
+        long tolerance = interval * capacity;
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(now)).tryAcquire(now, interval, tolerance);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleEvictionNanos));
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
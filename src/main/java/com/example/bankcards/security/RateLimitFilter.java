@@ -0,0 +1,138 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.RateLimitProperties;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.exception.dto.ErrorResponseDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает частоту запросов по IP и по имени пользователя. Для неаутентифицированных
+ * запросов (логин) имя берётся из тела запроса, поэтому тело буферизуется.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_INSPECTED_BODY_BYTES = 8 * 1024;
+
+    private final RateLimitProperties properties;
+    private final RateLimiterBackend backend;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimiterBackend backend, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.backend = backend;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<RateLimitProperties.Route> routes = properties.getRoutes();
+        int routeIndex = -1;
+        for (int i = 0; i < routes.size(); i++) {
+            if (pathMatcher.match(routes.get(i).getPattern(), path)) {
+                routeIndex = i;
+                break;
+            }
+        }
+        if (routeIndex < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitProperties.Route route = routes.get(routeIndex);
+        HttpServletRequest effectiveRequest = request;
+        long waitNanos = 0;
+
+        if (route.getIpCapacity() > 0) {
+            waitNanos = backend.tryAcquire(routeIndex + ":ip:" + request.getRemoteAddr(),
+                    route.getIpCapacity(), route.getIpRefillPerSecond());
+        }
+
+        if (waitNanos == 0 && route.getUserCapacity() > 0) {
+            String username = authenticatedUsername();
+            // заявленное тело больше лимита не читается вовсе, необъявленное — не дальше лимита
+            if (username == null && isJson(request) && request.getContentLengthLong() <= MAX_INSPECTED_BODY_BYTES) {
+                CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request, MAX_INSPECTED_BODY_BYTES);
+                effectiveRequest = cached;
+                username = cached.isComplete() ? extractUsername(cached.getBody()) : null;
+            }
+            if (username != null) {
+                waitNanos = backend.tryAcquire(routeIndex + ":user:" + username,
+                        route.getUserCapacity(), route.getUserRefillPerSecond());
+            }
+        }
+
+        if (waitNanos > 0) {
+            log.debug("Rate limit exceeded for {} from {}", path, request.getRemoteAddr());
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    private String authenticatedUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private boolean isJson(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private String extractUsername(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(body).get("username");
+            return username != null && username.isTextual() ? username.asText().trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        ErrorStatus errorStatus = ErrorStatus.TOO_MANY_REQUESTS;
+        long retryAfterSeconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        response.setStatus(errorStatus.getHttpStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponseDto.of(errorStatus));
+    }
+}
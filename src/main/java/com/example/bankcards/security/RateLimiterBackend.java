@@ -0,0 +1,9 @@
+package com.example.bankcards.security;
+
+public interface RateLimiterBackend {
+
+    /**
+     * @return 0, если токен получен, иначе сколько наносекунд ждать до следующего токена
+     */
+    long tryAcquire(String key, long capacity, double refillPerSecond);
+}
@@ -0,0 +1,34 @@
+package com.example.bankcards.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket в форме GCRA: всё состояние — одно "теоретическое время прибытия"
+ * следующего запроса, которое меняется CAS-ом без блокировок.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    long tryAcquire(long now, long intervalNanos, long toleranceNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isIdle(long now, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos < now;
+    }
+}
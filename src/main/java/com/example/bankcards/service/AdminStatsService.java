@@ -0,0 +1,229 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.AdminStatsResponseDto;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardStatusSummary;
+import com.example.bankcards.repository.RoleCount;
+import com.example.bankcards.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Системная статистика для администраторов. Счётчики меняются инкрементально по событиям
+ * карт и операциям над пользователями, поэтому чтение не зависит от размера таблиц.
+ * Периодическая сверка с агрегатами SQL исправляет накопившийся дрейф: инкременты, пришедшие
+ * после начала сверки, копятся в новом поколении счётчика и переживают её.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminStatsService {
+
+    private static final int BALANCE_SCALE = 2;
+
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+
+    private final Map<CardStatus, Counter> cardsByStatus = counters(CardStatus.class);
+    private final Map<Role, Counter> usersByRole = counters(Role.class);
+    private final Counter balanceMinorUnits = new Counter();
+    private final Counter expiringThisMonth = new Counter();
+
+    private volatile YearMonth countedMonth = YearMonth.now();
+    private volatile Instant lastReconciledAt;
+
+    public AdminStatsResponseDto getStats() {
+        Map<CardStatus, Long> byStatus = new EnumMap<>(CardStatus.class);
+        long totalCards = 0;
+        for (Map.Entry<CardStatus, Counter> entry : cardsByStatus.entrySet()) {
+            long count = entry.getValue().sum();
+            byStatus.put(entry.getKey(), count);
+            totalCards += count;
+        }
+        Map<Role, Long> byRole = new EnumMap<>(Role.class);
+        usersByRole.forEach((role, counter) -> byRole.put(role, counter.sum()));
+
+        return new AdminStatsResponseDto(
+                totalCards,
+                byStatus,
+                BigDecimal.valueOf(balanceMinorUnits.sum(), BALANCE_SCALE),
+                expiringThisMonth.sum(),
+                byRole,
+                lastReconciledAt);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCardEvent(CardEvent event) {
+        switch (event.type()) {
+            case CREATED -> {
+                increment(cardsByStatus, event.status(), 1);
+                if (isCountedMonth(event.expiryDate())) {
+                    expiringThisMonth.add(1);
+                }
+            }
+            case DELETED -> {
+                increment(cardsByStatus, event.previousStatus(), -1);
+                if (event.amount() != null) {
+                    balanceMinorUnits.add(-toMinorUnits(event.amount()));
+                }
+                if (isCountedMonth(event.expiryDate())) {
+                    expiringThisMonth.add(-1);
+                }
+            }
+            case TRANSFER -> {
+                // переводы не меняют ни статусы, ни суммарный баланс
+            }
+            case HOLD_CAPTURED -> {
+                if (event.amount() != null) {
+                    balanceMinorUnits.add(-toMinorUnits(event.amount()));
+                }
+            }
+            default -> {
+                if (event.previousStatus() != event.status()) {
+                    increment(cardsByStatus, event.previousStatus(), -1);
+                    increment(cardsByStatus, event.status(), 1);
+                }
+            }
+        }
+    }
+
+    public void onUserCreated(Collection<Role> roles) {
+        roles.forEach(role -> increment(usersByRole, role, 1));
+    }
+
+    public void onUserRolesChanged(Collection<Role> oldRoles, Collection<Role> newRoles) {
+        oldRoles.forEach(role -> increment(usersByRole, role, -1));
+        newRoles.forEach(role -> increment(usersByRole, role, 1));
+    }
+
+    public void onUserDeleted(Collection<Role> roles) {
+        roles.forEach(role -> increment(usersByRole, role, -1));
+    }
+
+    /**
+     * Учитывает массовое мягкое удаление карт пользователя, которое не публикует событий по картам.
+     * Вызывается в той же транзакции до UPDATE, пока карты ещё видны запросам.
+     */
+    public void onUserCardsDeleted(Long userId) {
+        for (CardStatusSummary row : cardRepository.summarizeAllByUserId(userId)) {
+            increment(cardsByStatus, row.getStatus(), -row.getCardCount());
+            balanceMinorUnits.add(-toMinorUnits(row.getTotalBalance()));
+        }
+        YearMonth month = countedMonth;
+        expiringThisMonth.add(-cardRepository.countByUserIdAndExpiryDateBetween(
+                userId, month.atDay(1), month.atEndOfMonth()));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${admin-stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        cardsByStatus.values().forEach(Counter::beginReconcile);
+        usersByRole.values().forEach(Counter::beginReconcile);
+        balanceMinorUnits.beginReconcile();
+        expiringThisMonth.beginReconcile();
+
+        Map<CardStatus, Long> statusCounts = new EnumMap<>(CardStatus.class);
+        BigDecimal totalBalance = BigDecimal.ZERO;
+        for (CardStatusSummary row : cardRepository.summarizeAll()) {
+            statusCounts.put(row.getStatus(), row.getCardCount());
+            totalBalance = totalBalance.add(row.getTotalBalance());
+        }
+        Map<Role, Long> roleCounts = new EnumMap<>(Role.class);
+        for (RoleCount row : userRepository.countByRole()) {
+            roleCounts.put(row.getRole(), row.getUserCount());
+        }
+        YearMonth month = YearMonth.now();
+        long expiring = cardRepository.countByExpiryDateBetween(month.atDay(1), month.atEndOfMonth());
+
+        long drift = 0;
+        for (CardStatus status : CardStatus.values()) {
+            drift += Math.abs(cardsByStatus.get(status).finishReconcile(statusCounts.getOrDefault(status, 0L)));
+        }
+        for (Role role : Role.values()) {
+            drift += Math.abs(usersByRole.get(role).finishReconcile(roleCounts.getOrDefault(role, 0L)));
+        }
+        balanceMinorUnits.finishReconcile(toMinorUnits(totalBalance));
+        countedMonth = month;
+        expiringThisMonth.finishReconcile(expiring);
+        lastReconciledAt = Instant.now();
+
+        if (drift > 0) {
+            log.info("Admin stats reconciled, counter drift {}", drift);
+        }
+    }
+
+    private boolean isCountedMonth(LocalDate date) {
+        return date != null && YearMonth.from(date).equals(countedMonth);
+    }
+
+    private static <K> void increment(Map<K, Counter> counters, K key, long delta) {
+        if (key != null) {
+            counters.get(key).add(delta);
+        }
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(BALANCE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static <K extends Enum<K>> Map<K, Counter> counters(Class<K> type) {
+        Map<K, Counter> map = new EnumMap<>(type);
+        for (K key : type.getEnumConstants()) {
+            map.put(key, new Counter());
+        }
+        return map;
+    }
+
+    /**
+     * Значение — база последней сверки плюс инкременты после неё. В начале сверки инкременты
+     * переключаются на новый сумматор, а прежний остаётся в значении до замены базы эталоном
+     * SQL; поэтому всё, что пришло после снимка, сохраняется. Событие, закоммиченное до снимка,
+     * но доставленное после начала сверки, может быть учтено дважды до следующей сверки.
+     */
+    private static final class Counter {
+
+        private volatile Generation generation = new Generation(0, null, new LongAdder());
+
+        void add(long delta) {
+            generation.adder().add(delta);
+        }
+
+        long sum() {
+            Generation current = generation;
+            long carried = current.carried() != null ? current.carried().sum() : 0;
+            return current.base() + carried + current.adder().sum();
+        }
+
+        void beginReconcile() {
+            Generation current = generation;
+            generation = new Generation(current.base(), current.adder(), new LongAdder());
+        }
+
+        /** @return расхождение значения на начало сверки с эталоном */
+        long finishReconcile(long expected) {
+            Generation current = generation;
+            long carried = current.carried() != null ? current.carried().sum() : 0;
+            generation = new Generation(expected, null, current.adder());
+            return expected - (current.base() + carried);
+        }
+
+        private record Generation(long base, LongAdder carried, LongAdder adder) {
+        }
+    }
+}
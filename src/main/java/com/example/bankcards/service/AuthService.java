@@ -6,6 +6,7 @@ import com.example.bankcards.exception.ApiErrorException;
 import com.example.bankcards.exception.constant.ErrorStatus;
 import com.example.bankcards.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -17,9 +18,11 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameIndex usernameIndex;
+    private final AdminStatsService adminStatsService;
 
     public User register(String username, String password) {
-        if (userRepository.existsByUsername(username)) {
+        if (usernameIndex.mightExist(username) && userRepository.existsByUsername(username)) {
             throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
         }
 
@@ -28,6 +31,14 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(password));
         user.setRoles(Collections.singleton(Role.ROLE_USER));
 
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+        }
+        usernameIndex.add(username);
+        adminStatsService.onUserCreated(user.getRoles());
+        return saved;
     }
 }
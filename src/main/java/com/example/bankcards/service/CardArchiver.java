@@ -0,0 +1,91 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardArchiveProperties;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Переносит давно просроченные карты в архивную партицию cards (archived = true) пачками,
+ * каждая пачка — отдельная короткая транзакция. Статус EXPIRED выставляется лениво, при обращении
+ * к карте, поэтому отбор идёт по expiry_date, а статус переводится в EXPIRED тем же UPDATE. На PostgreSQL UPDATE ключа партиционирования
+ * физически перемещает строку, и активная партиция с её индексами остаётся компактной.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CardArchiver {
+
+    private final CardArchiveProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Scheduled(initialDelayString = "${card-archive.interval-ms:3600000}", fixedDelayString = "${card-archive.interval-ms:3600000}")
+    public void archiveScheduled() {
+        if (properties.isEnabled()) {
+            archive();
+        }
+    }
+
+    /** @return число карт, перенесённых в архив за этот запуск */
+    public int archive() {
+        LocalDate cutoff = LocalDate.now().minus(properties.getRetention());
+        int total = 0;
+        while (true) {
+            Integer archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            int count = archived == null ? 0 : archived;
+            total += count;
+            if (count < properties.getBatchSize()) {
+                break;
+            }
+            try {
+                Thread.sleep(properties.getPauseBetweenBatchesMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} cards expired before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        List<ArchivedCard> cards = jdbcTemplate.query(
+                "SELECT id, user_id, status, expiry_date FROM cards WHERE archived = FALSE AND deleted_at IS NULL AND expiry_date < ? "
+                        + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, i) -> new ArchivedCard(rs.getLong("id"), rs.getLong("user_id"), CardStatus.valueOf(rs.getString("status")),
+                        rs.getDate("expiry_date").toLocalDate()),
+                Date.valueOf(cutoff), properties.getBatchSize());
+        if (cards.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate("UPDATE cards SET archived = TRUE, status = ? WHERE id = ? AND archived = FALSE",
+                cards.stream().map(card -> new Object[]{CardStatus.EXPIRED.name(), card.id()}).toList());
+
+        Instant now = Instant.now();
+        for (ArchivedCard card : cards) {
+            eventPublisher.publishEvent(new CardEvent(CardEventType.ARCHIVED, card.id(), card.ownerId(),
+                    card.status(), CardStatus.EXPIRED, card.expiryDate(), null, null, null, now));
+        }
+        return cards.size();
+    }
+
+    private record ArchivedCard(Long id, Long ownerId, CardStatus status, LocalDate expiryDate) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.util.CardNumberEncryptor;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Перешифровывает номера карт активным ключом без остановки сервиса. Таблица cards делится на
+ * диапазоны id, которые параллельно разбирают воркеры; каждая пачка — отдельная короткая транзакция
+ * с условным UPDATE (строку, уже переписанную приложением, пропускаем) и сохранением чекпоинта
+ * в key_rotation_checkpoint, так что после рестарта ротация продолжается с места остановки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CardKeyRotationJob {
+
+    private final EncryptionProperties properties;
+    private final CardNumberEncryptor encryptor;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder reEncrypted = new LongAdder();
+    private volatile boolean running = true;
+    private Thread coordinator;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.getRotation().isEnabled() || encryptor.activeKeyId() == null) {
+            return;
+        }
+        coordinator = new Thread(this::rotate, "card-key-rotation");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (coordinator != null) {
+            coordinator.interrupt();
+        }
+    }
+
+    public long getReEncrypted() {
+        return reEncrypted.sum();
+    }
+
+    /** Проходит всю таблицу cards; возвращает число перешифрованных строк за этот запуск. */
+    public long rotate() {
+        String keyId = encryptor.activeKeyId();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cards", Long.class);
+        if (keyId == null || maxId == null) {
+            return 0;
+        }
+        EncryptionProperties.Rotation rotation = properties.getRotation();
+        long before = reEncrypted.sum();
+        AtomicLong nextRange = new AtomicLong(0);
+        log.info("Card key rotation to '{}' started, max card id {}", keyId, maxId);
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, rotation.getWorkers()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, rotation.getWorkers()); i++) {
+                futures.add(workers.submit(() -> {
+                    long rangeStart;
+                    while (running && (rangeStart = nextRange.getAndAdd(rotation.getRangeSize())) <= maxId) {
+                        rotateRange(keyId, rangeStart, rangeStart + rotation.getRangeSize());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Card key rotation to '{}' failed, will resume from checkpoints", keyId, e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long done = reEncrypted.sum() - before;
+        log.info("Card key rotation to '{}' {}: {} cards re-encrypted", keyId, running ? "finished" : "stopped", done);
+        return done;
+    }
+
+    private void rotateRange(String keyId, long rangeStart, long rangeEnd) throws InterruptedException {
+        claimRange(keyId, rangeStart);
+        Checkpoint checkpoint = jdbcTemplate.queryForObject(
+                "SELECT last_id, completed FROM key_rotation_checkpoint WHERE key_id = ? AND range_start = ?",
+                (rs, i) -> new Checkpoint(rs.getLong("last_id"), rs.getBoolean("completed")), keyId, rangeStart);
+        if (checkpoint == null || checkpoint.completed()) {
+            return;
+        }
+
+        long afterId = checkpoint.lastId();
+        int batchSize = properties.getRotation().getBatchSize();
+        while (running) {
+            long from = afterId;
+            Long lastId = transactionTemplate.execute(status -> rotateBatch(keyId, rangeStart, from, rangeEnd, batchSize));
+            if (lastId == null) {
+                return;
+            }
+            afterId = lastId;
+            Thread.sleep(properties.getRotation().getPauseBetweenBatchesMs());
+        }
+    }
+
+    /** @return id последней обработанной строки или null, если диапазон закончился */
+    private Long rotateBatch(String keyId, long rangeStart, long afterId, long rangeEnd, int batchSize) {
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT id, number_encrypted FROM cards WHERE id > ? AND id < ? ORDER BY id LIMIT ?",
+                (rs, i) -> new Object[]{rs.getLong("id"), rs.getString("number_encrypted")},
+                afterId, rangeEnd, batchSize);
+
+        List<Object[]> updates = new ArrayList<>();
+        for (Object[] row : rows) {
+            String stored = (String) row[1];
+            if (!encryptor.isCurrent(stored)) {
+                updates.add(new Object[]{encryptor.reEncrypt(stored), row[0], stored});
+            }
+        }
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(
+                    "UPDATE cards SET number_encrypted = ? WHERE id = ? AND number_encrypted = ?", updates);
+            for (int count : counts) {
+                reEncrypted.add(Math.max(count, 0));
+            }
+        }
+
+        boolean completed = rows.size() < batchSize;
+        long lastId = rows.isEmpty() ? afterId : (Long) rows.get(rows.size() - 1)[0];
+        jdbcTemplate.update("UPDATE key_rotation_checkpoint SET last_id = ?, completed = ? "
+                + "WHERE key_id = ? AND range_start = ?", lastId, completed, keyId, rangeStart);
+        return completed ? null : lastId;
+    }
+
+    private void claimRange(String keyId, long rangeStart) {
+        try {
+            jdbcTemplate.update("INSERT INTO key_rotation_checkpoint (key_id, range_start, last_id, completed) "
+                    + "VALUES (?, ?, ?, ?)", keyId, rangeStart, rangeStart - 1, false);
+        } catch (DuplicateKeyException e) {
+            // диапазон уже начат ранее — продолжаем с чекпоинта
+        }
+    }
+
+    private record Checkpoint(long lastId, boolean completed) {
+    }
+}
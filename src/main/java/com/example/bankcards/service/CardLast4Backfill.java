@@ -0,0 +1,51 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.repository.CardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Заполняет cards.number_last4 для карт, созданных до появления колонки. Номер хранится
+ * зашифрованным, поэтому сделать это миграцией Liquibase нельзя.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CardLast4Backfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long afterId = 0;
+        long updated = 0;
+        while (true) {
+            long from = afterId;
+            List<Card> batch = transactionTemplate.execute(status -> {
+                List<Card> cards = cardRepository.findByLast4IsNullAndIdGreaterThanOrderByIdAsc(
+                        from, PageRequest.of(0, BATCH_SIZE));
+                cards.forEach(card -> card.setLast4(Card.lastFourDigits(card.getNumber())));
+                return cards;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            updated += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (updated > 0) {
+            log.info("Backfilled last4 for {} cards", updated);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardNumberEncryptor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Находит id карты получателя по номеру через индекс шифротекстов, без расшифровки строк.
+ * Найденные id кэшируются ненадолго; ключ кэша — шифротекст номера, открытые номера в памяти
+ * не хранятся. Устаревшая запись безопасна: статус получателя проверяется под блокировкой строки.
+ */
+@Service
+public class CardReferenceResolver {
+
+    private final CardRepository cardRepository;
+    private final CardNumberEncryptor encryptor;
+    private final Cache<String, Long> cache;
+
+    public CardReferenceResolver(CardRepository cardRepository,
+                                 CardNumberEncryptor encryptor,
+                                 @Value("${card-reference.cache.max-size:100000}") long maxSize,
+                                 @Value("${card-reference.cache.ttl:30s}") Duration ttl) {
+        this.cardRepository = cardRepository;
+        this.encryptor = encryptor;
+        this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    public Optional<Long> resolve(String cardNumber) {
+        if (cardNumber == null) {
+            return Optional.empty();
+        }
+        String number = cardNumber.replace(" ", "");
+        if (number.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = encryptor.convertToDatabaseColumn(number);
+        Long cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> found = cardRepository.findActiveIdByNumber(number);
+        found.ifPresent(id -> cache.put(key, id));
+        return found;
+    }
+}
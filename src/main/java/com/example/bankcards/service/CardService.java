@@ -1,24 +1,49 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.CardCreateRequestDto;
+import com.example.bankcards.dto.request.CardSearchRequestDto;
+import com.example.bankcards.config.HoldProperties;
 import com.example.bankcards.dto.response.CardResponseDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Hold;
+import com.example.bankcards.entity.HoldStatus;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import com.example.bankcards.event.HoldPlacedEvent;
 import com.example.bankcards.exception.ApiErrorException;
 import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.repository.CardOwnerRef;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpecifications;
+import com.example.bankcards.repository.HoldRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.balance.BalanceEngine;
+import com.example.bankcards.service.limit.SpendingLimitService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +51,16 @@ public class CardService {
 
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
+    private final ObjectProvider<BalanceEngine> balanceEngineProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SpendingLimitService spendingLimitService;
+    private final CardReferenceResolver cardReferenceResolver;
+    private final HoldRepository holdRepository;
+    private final HoldProperties holdProperties;
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final Clock clock;
 
+    @Transactional
     public CardResponseDto createCard(CardCreateRequestDto request) {
         User user = getUserOrThrow(request.getUserId());
 
@@ -46,6 +80,7 @@ public class CardService {
         }
 
         cardRepository.save(card);
+        publish(CardEventType.CREATED, card, null, null, null);
 
         return new CardResponseDto(
                 card.getId(),
@@ -56,28 +91,122 @@ public class CardService {
         );
     }
 
+    @Transactional
     public Card blockCard(Long cardId) {
         Card card = getCardOrThrow(cardId);
+        CardStatus previousStatus = card.getStatus();
         card.setStatus(CardStatus.BLOCKED);
-        return cardRepository.save(card);
+        Card saved = cardRepository.save(card);
+        publish(CardEventType.BLOCKED, card, previousStatus, null, null);
+        return saved;
     }
 
+    @Transactional(dontRollbackOn = ApiErrorException.class)
     public Card activateCard(Long cardId) {
         Card card = getCardOrThrow(cardId);
+        CardStatus previousStatus = card.getStatus();
         if (isExpired(card)) {
             card.setStatus(CardStatus.EXPIRED);
             cardRepository.save(card);
+            if (previousStatus != CardStatus.EXPIRED) {
+                publish(CardEventType.EXPIRED, card, previousStatus, null, null);
+            }
             throw new ApiErrorException(ErrorStatus.FORBIDDEN_OPERATION);
         }
         card.setStatus(CardStatus.ACTIVE);
+        Card saved = cardRepository.save(card);
+        publish(CardEventType.ACTIVATED, card, previousStatus, null, null);
+        return saved;
+    }
+
+    @Transactional
+    public Card updateLimits(Long cardId, BigDecimal dailyLimit, BigDecimal monthlyLimit) {
+        Card card = getCardOrThrow(cardId);
+        card.setDailyLimit(dailyLimit);
+        card.setMonthlyLimit(monthlyLimit);
         return cardRepository.save(card);
     }
 
+    @Transactional
     public void deleteCard(Long cardId) {
-        if (!cardRepository.existsById(cardId)) {
-            throw new ApiErrorException(ErrorStatus.CARD_NOT_FOUND);
+        Card card = getCardOrThrow(cardId);
+        // плановые переводы и холды удаляемой карты закрываются сразу: исполнитель и проход по холдам
+        // больше не видят её строку, а физически их удалит SoftDeletePurger вместе с картой
+        holdRepository.releaseByCardId(cardId);
+        scheduledTransferRepository.cancelByCardId(cardId);
+        // карта только помечается удалённой, строку удалит SoftDeletePurger
+        cardRepository.softDelete(cardId, LocalDateTime.now());
+        Long ownerId = card.getUser() != null ? card.getUser().getId() : null;
+        eventPublisher.publishEvent(new CardEvent(CardEventType.DELETED, cardId, ownerId, card.getStatus(), null,
+                card.getExpiryDate(), null, card.getBalance(), currentActor(), Instant.now()));
+    }
+
+    public List<Card> getBlockRequests(Long afterId, int size) {
+        return cardRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                CardStatus.REQUESTED_BLOCK, afterId != null ? afterId : 0L, PageRequest.of(0, size));
+    }
+
+    @Transactional
+    public List<Long> approveBlockRequests(Collection<Long> cardIds) {
+        List<CardOwnerRef> approved = cardRepository.approveBlockRequests(new HashSet<>(cardIds));
+        String actor = currentActor();
+        Instant now = Instant.now();
+        for (CardOwnerRef ref : approved) {
+            eventPublisher.publishEvent(new CardEvent(CardEventType.BLOCKED, ref.getId(), ref.getUserId(),
+                    CardStatus.REQUESTED_BLOCK, CardStatus.BLOCKED, ref.getExpiryDate(), null, null, actor, now));
         }
-        cardRepository.deleteById(cardId);
+        return approved.stream().map(CardOwnerRef::getId).sorted().toList();
+    }
+
+    /**
+     * Поиск карт для поддержки. Запрос обязан содержать хотя бы одно условие, по которому есть
+     * индекс (владелец, последние 4 цифры или статус): остальные условия лишь фильтруют строки,
+     * найденные по этому индексу. Запросы без такого условия отклоняются, чтобы не сканировать cards.
+     */
+    public List<Card> searchCards(CardSearchRequestDto request, int limit) {
+        Long ownerId = request.getOwnerId();
+        if (request.getUsername() != null && !request.getUsername().isBlank()) {
+            Optional<User> owner = userRepository.findByUsername(request.getUsername());
+            if (owner.isEmpty() || (ownerId != null && !ownerId.equals(owner.get().getId()))) {
+                return List.of();
+            }
+            ownerId = owner.get().getId();
+        }
+
+        Specification<Card> spec;
+        if (ownerId != null) {
+            spec = CardSpecifications.ownerId(ownerId);
+        } else if (request.getLast4() != null) {
+            spec = CardSpecifications.last4(request.getLast4());
+        } else if (request.getStatus() != null) {
+            spec = CardSpecifications.status(request.getStatus());
+        } else {
+            throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+        }
+
+        if (ownerId != null && request.getLast4() != null) {
+            spec = spec.and(CardSpecifications.last4(request.getLast4()));
+        }
+        if ((ownerId != null || request.getLast4() != null) && request.getStatus() != null) {
+            spec = spec.and(CardSpecifications.status(request.getStatus()));
+        }
+        if (request.getExpiryFrom() != null) {
+            spec = spec.and(CardSpecifications.expiryFrom(request.getExpiryFrom()));
+        }
+        if (request.getExpiryTo() != null) {
+            spec = spec.and(CardSpecifications.expiryTo(request.getExpiryTo()));
+        }
+        if (request.getBalanceMin() != null) {
+            spec = spec.and(CardSpecifications.balanceMin(request.getBalanceMin()));
+        }
+        if (request.getBalanceMax() != null) {
+            spec = spec.and(CardSpecifications.balanceMax(request.getBalanceMax()));
+        }
+        if (request.getAfterId() != null) {
+            spec = spec.and(CardSpecifications.idGreaterThan(request.getAfterId()));
+        }
+
+        return cardRepository.findBy(spec, query -> query.sortBy(Sort.by("id")).limit(limit).all());
     }
 
     public Page<Card> getAllCards(Pageable pageable) {
@@ -94,6 +223,7 @@ public class CardService {
         return cardRepository.findByUser(user, pageable);
     }
 
+    @Transactional
     public Card requestBlockCard(Long cardId, Authentication authentication) {
         User user = getUserByUsername(authentication.getName());
         Card card = getCardOrThrow(cardId);
@@ -103,8 +233,11 @@ public class CardService {
             throw new ApiErrorException(ErrorStatus.FORBIDDEN_OPERATION);
         }
 
+        CardStatus previousStatus = card.getStatus();
         card.setStatus(CardStatus.REQUESTED_BLOCK);
-        return cardRepository.save(card);
+        Card saved = cardRepository.save(card);
+        publish(CardEventType.BLOCK_REQUESTED, card, previousStatus, null, null);
+        return saved;
     }
 
     public BigDecimal getCardBalance(Long cardId, Authentication authentication) {
@@ -112,6 +245,10 @@ public class CardService {
         Card card = getCardOrThrow(cardId);
         ensureOwner(card, user);
 
+        BalanceEngine balanceEngine = balanceEngineProvider.getIfAvailable();
+        if (balanceEngine != null) {
+            return balanceEngine.getBalance(card.getId());
+        }
         return card.getBalance() != null ? card.getBalance() : BigDecimal.ZERO;
     }
 
@@ -123,8 +260,9 @@ public class CardService {
             throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
         }
 
-        Card from = getCardOrThrow(fromCardId);
-        Card to = getCardOrThrow(toCardId);
+        TransferCards cards = loadTransferCards(fromCardId, toCardId);
+        Card from = cards.from();
+        Card to = cards.to();
 
         ensureOwner(from, user);
         ensureOwner(to, user);
@@ -132,15 +270,170 @@ public class CardService {
         failIfNotActiveOrExpired(from);
         failIfNotActiveOrExpired(to);
 
-        if (from.getBalance().compareTo(amount) < 0) {
+        moveFunds(from, to, amount);
+    }
+
+    /**
+     * Перевод на карту другого пользователя по номеру. Владельцем должна быть только карта-отправитель,
+     * получатель проверяется по статусу. Без движка балансов обе строки блокируются в порядке
+     * возрастания id, чтобы встречные переводы не взаимоблокировались.
+     */
+    @Transactional
+    public void transferToCard(Long fromCardId, String toCardNumber, BigDecimal amount, Authentication authentication) {
+        User user = getUserByUsername(authentication.getName());
+
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+        }
+
+        Long toCardId = cardReferenceResolver.resolve(toCardNumber)
+                .orElseThrow(() -> new ApiErrorException(ErrorStatus.CARD_NOT_FOUND));
+        if (toCardId.equals(fromCardId)) {
+            throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+        }
+
+        TransferCards cards = loadTransferCards(fromCardId, toCardId);
+        Card from = cards.from();
+        Card to = cards.to();
+
+        ensureOwner(from, user);
+
+        failIfNotActiveOrExpired(from);
+        failIfNotActiveOrExpired(to);
+
+        moveFunds(from, to, amount);
+    }
+
+    // без движка балансов обе строки блокируются в порядке возрастания id, чтобы встречные переводы
+    // не взаимоблокировались, а параллельные списания с одной карты не теряли обновления баланса
+    private TransferCards loadTransferCards(Long fromCardId, Long toCardId) {
+        if (balanceEngineProvider.getIfAvailable() != null) {
+            return new TransferCards(getCardOrThrow(fromCardId), getCardOrThrow(toCardId));
+        }
+        if (fromCardId < toCardId) {
+            Card from = lockCardOrThrow(fromCardId);
+            return new TransferCards(from, lockCardOrThrow(toCardId));
+        }
+        Card to = lockCardOrThrow(toCardId);
+        return new TransferCards(lockCardOrThrow(fromCardId), to);
+    }
+
+    private void moveFunds(Card from, Card to, BigDecimal amount) {
+        BalanceEngine balanceEngine = balanceEngineProvider.getIfAvailable();
+        if (balanceEngine != null) {
+            spendingLimitService.reserve(from, amount);
+            balanceEngine.transfer(from.getId(), to.getId(), amount);
+            publish(CardEventType.TRANSFER, from, from.getStatus(), to.getId(), amount);
+            return;
+        }
+
+        if (from.getAvailableBalance().compareTo(amount) < 0) {
             throw new ApiErrorException(ErrorStatus.INSUFFICIENT_FUNDS);
         }
+        spendingLimitService.reserve(from, amount);
 
         from.setBalance(from.getBalance().subtract(amount));
         to.setBalance(to.getBalance().add(amount));
 
         cardRepository.save(from);
         cardRepository.save(to);
+        publish(CardEventType.TRANSFER, from, from.getStatus(), to.getId(), amount);
+    }
+
+    /**
+     * Ставит холд: сумма остаётся на балансе, но перестаёт быть доступной до capture, release
+     * или истечения срока (holds.ttl). Лимиты трат учитывают сумму в момент постановки.
+     */
+    @Transactional
+    public Hold placeHold(Long cardId, BigDecimal amount, Authentication authentication) {
+        User user = getUserByUsername(authentication.getName());
+
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+        }
+        failIfBalanceEngineEnabled();
+
+        Card card = lockCardOrThrow(cardId);
+        ensureOwner(card, user);
+        failIfNotActiveOrExpired(card);
+        if (card.getAvailableBalance().compareTo(amount) < 0) {
+            throw new ApiErrorException(ErrorStatus.INSUFFICIENT_FUNDS);
+        }
+        spendingLimitService.reserve(card, amount);
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        Hold hold = holdRepository.save(Hold.builder()
+                .cardId(card.getId())
+                .amount(amount)
+                .status(HoldStatus.ACTIVE)
+                .createdAt(now)
+                .expiresAt(now.plus(holdProperties.getTtl()))
+                .build());
+        card.setHeldAmount(card.getHeldAmount().add(amount));
+        cardRepository.save(card);
+
+        publish(CardEventType.HOLD_PLACED, card, card.getStatus(), null, amount);
+        eventPublisher.publishEvent(new HoldPlacedEvent(hold.getId(), hold.getExpiresAt()));
+        return hold;
+    }
+
+    /** Списывает сумму холда с баланса. Истёкший холд подтвердить нельзя. */
+    @Transactional
+    public Hold captureHold(Long holdId, Authentication authentication) {
+        return closeHold(holdId, HoldStatus.CAPTURED, authentication);
+    }
+
+    /** Отменяет холд и возвращает сумму в доступный остаток. */
+    @Transactional
+    public Hold releaseHold(Long holdId, Authentication authentication) {
+        return closeHold(holdId, HoldStatus.RELEASED, authentication);
+    }
+
+    private Hold closeHold(Long holdId, HoldStatus outcome, Authentication authentication) {
+        User user = getUserByUsername(authentication.getName());
+        failIfBalanceEngineEnabled();
+
+        Hold hold = holdRepository.findById(holdId)
+                .orElseThrow(() -> new ApiErrorException(ErrorStatus.HOLD_NOT_FOUND));
+        // строка карты блокируется до перехода холда — тот же порядок, что и при истечении
+        Card card = lockCardOrThrow(hold.getCardId());
+        ensureOwner(card, user);
+
+        int closed = outcome == HoldStatus.CAPTURED
+                ? holdRepository.capture(holdId, LocalDateTime.now(clock))
+                : holdRepository.release(holdId);
+        if (closed == 0) {
+            throw new ApiErrorException(ErrorStatus.FORBIDDEN_OPERATION);
+        }
+
+        card.setHeldAmount(card.getHeldAmount().subtract(hold.getAmount()));
+        if (outcome == HoldStatus.CAPTURED) {
+            card.setBalance(card.getBalance().subtract(hold.getAmount()));
+        }
+        cardRepository.save(card);
+        hold.setStatus(outcome);
+
+        publish(outcome == HoldStatus.CAPTURED ? CardEventType.HOLD_CAPTURED : CardEventType.HOLD_RELEASED,
+                card, card.getStatus(), null, hold.getAmount());
+        return hold;
+    }
+
+    // балансы движка живут в памяти шардов, холды меняют cards напрямую
+    private void failIfBalanceEngineEnabled() {
+        if (balanceEngineProvider.getIfAvailable() != null) {
+            throw new ApiErrorException(ErrorStatus.FORBIDDEN_OPERATION);
+        }
+    }
+
+    private void publish(CardEventType type, Card card, CardStatus previousStatus, Long counterpartCardId, BigDecimal amount) {
+        Long ownerId = card.getUser() != null ? card.getUser().getId() : null;
+        eventPublisher.publishEvent(new CardEvent(type, card.getId(), ownerId, previousStatus, card.getStatus(),
+                card.getExpiryDate(), counterpartCardId, amount, currentActor(), Instant.now()));
+    }
+
+    private String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
     }
 
     private Card getCardOrThrow(Long cardId) {
@@ -148,6 +441,11 @@ public class CardService {
                 .orElseThrow(() -> new ApiErrorException(ErrorStatus.CARD_NOT_FOUND));
     }
 
+    private Card lockCardOrThrow(Long cardId) {
+        return cardRepository.findByIdForUpdate(cardId)
+                .orElseThrow(() -> new ApiErrorException(ErrorStatus.CARD_NOT_FOUND));
+    }
+
     private User getUserOrThrow(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new ApiErrorException(ErrorStatus.USER_NOT_FOUND));
@@ -183,4 +481,7 @@ public class CardService {
         if (cardNumber == null || cardNumber.length() < 4) return "****";
         return "**** **** **** " + cardNumber.substring(cardNumber.length() - 4);
     }
+
+    private record TransferCards(Card from, Card to) {
+    }
 }
@@ -0,0 +1,116 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardSummaryResponseDto;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardStatusSummary;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.balance.BalanceEngine;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сводка по картам пользователя одним агрегирующим запросом. Результат кэшируется по userId
+ * и сбрасывается после коммита любого изменения карт пользователя (у перевода — и у владельца карты-получателя); TTL ограничивает
+ * устаревание, если вычисление пересеклось с параллельной записью.
+ */
+@Service
+public class CardSummaryService {
+
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final ObjectProvider<BalanceEngine> balanceEngineProvider;
+    private final Cache<Long, CardSummaryResponseDto> cache;
+
+    public CardSummaryService(CardRepository cardRepository,
+                              UserRepository userRepository,
+                              ObjectProvider<BalanceEngine> balanceEngineProvider,
+                              @Value("${card-summary.cache.enabled:true}") boolean cacheEnabled,
+                              @Value("${card-summary.cache.max-size:100000}") long maxSize,
+                              @Value("${card-summary.cache.ttl:5m}") Duration ttl) {
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.balanceEngineProvider = balanceEngineProvider;
+        this.cache = cacheEnabled
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build()
+                : null;
+    }
+
+    public CardSummaryResponseDto getMySummary(Authentication authentication) {
+        User user = userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new ApiErrorException(ErrorStatus.USER_NOT_FOUND));
+
+        // Балансы в движке опережают таблицу cards, такие сводки не кэшируем
+        BalanceEngine balanceEngine = balanceEngineProvider.getIfAvailable();
+        if (balanceEngine != null) {
+            return summarize(user.getId(), balanceEngine);
+        }
+        return cache != null
+                ? cache.get(user.getId(), userId -> summarize(userId, null))
+                : summarize(user.getId(), null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCardEvent(CardEvent event) {
+        if (cache == null) {
+            return;
+        }
+        if (event.ownerId() != null) {
+            cache.invalidate(event.ownerId());
+        } else {
+            cache.invalidateAll();
+        }
+        // перевод публикуется одним событием от карты-отправителя, а получатель может быть чужим
+        if (event.type() == CardEventType.TRANSFER && event.counterpartCardId() != null) {
+            cardRepository.findOwnerIdById(event.counterpartCardId())
+                    .filter(ownerId -> !ownerId.equals(event.ownerId()))
+                    .ifPresent(cache::invalidate);
+        }
+    }
+
+    private CardSummaryResponseDto summarize(Long userId, BalanceEngine balanceEngine) {
+        List<CardStatusSummary> rows = cardRepository.summarizeByUserId(userId);
+
+        Map<CardStatus, Long> byStatus = new EnumMap<>(CardStatus.class);
+        long totalCards = 0;
+        BigDecimal totalBalance = BigDecimal.ZERO;
+        LocalDate soonestExpiry = null;
+        for (CardStatusSummary row : rows) {
+            byStatus.put(row.getStatus(), row.getCardCount());
+            totalCards += row.getCardCount();
+            totalBalance = totalBalance.add(row.getTotalBalance());
+            if (row.getStatus() != CardStatus.EXPIRED && row.getSoonestExpiry() != null
+                    && (soonestExpiry == null || row.getSoonestExpiry().isBefore(soonestExpiry))) {
+                soonestExpiry = row.getSoonestExpiry();
+            }
+        }
+
+        if (balanceEngine != null) {
+            totalBalance = BigDecimal.ZERO;
+            for (Long cardId : cardRepository.findIdsByUserId(userId)) {
+                totalBalance = totalBalance.add(balanceEngine.getBalance(cardId));
+            }
+        }
+
+        return new CardSummaryResponseDto(totalCards, Collections.unmodifiableMap(byStatus), totalBalance, soonestExpiry);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.SoftDeleteProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Физически удаляет мягко удалённые карты и пользователей. Каждая пачка — один DELETE
+ * ограниченного размера в своей транзакции, так что удаление пользователя с десятками тысяч
+ * карт не держит длинную транзакцию. Вместе с картой удаляются её строки в card_spending, holds,
+ * scheduled_transfers (с историей запусков) и balance_ledger. Пользователь удаляется только после всех своих карт.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SoftDeletePurger {
+
+    private final SoftDeleteProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(initialDelayString = "${soft-delete.interval-ms:60000}", fixedDelayString = "${soft-delete.interval-ms:60000}")
+    public void purgeScheduled() {
+        if (properties.isEnabled()) {
+            purge();
+        }
+    }
+
+    /** @return число физически удалённых строк cards и users за этот запуск */
+    public int purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(properties.getPurgeDelay()));
+        int cards = inBatches(() -> purgeCardBatch(cutoff));
+        int users = inBatches(() -> purgeUserBatch(cutoff));
+        if (cards > 0 || users > 0) {
+            log.info("Purged {} soft-deleted cards and {} users", cards, users);
+        }
+        return cards + users;
+    }
+
+    private int inBatches(IntSupplier batch) {
+        int total = 0;
+        while (true) {
+            Integer purged = transactionTemplate.execute(status -> batch.getAsInt());
+            int count = purged == null ? 0 : purged;
+            total += count;
+            if (count < properties.getBatchSize()) {
+                return total;
+            }
+            try {
+                Thread.sleep(properties.getPauseBetweenBatchesMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+    }
+
+    // карты с неприменёнными записями журнала балансов ждут, пока движок их применит
+    private int purgeCardBatch(Timestamp cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT c.id FROM cards c "
+                        + "WHERE c.deleted_at IS NOT NULL AND c.deleted_at < ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM balance_ledger l WHERE l.from_card_id = c.id AND l.applied = FALSE) "
+                        + "AND NOT EXISTS (SELECT 1 FROM balance_ledger l WHERE l.to_card_id = c.id AND l.applied = FALSE) "
+                        + "ORDER BY c.id LIMIT ?",
+                Long.class, cutoff, properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> args = ids.stream().map(id -> new Object[]{id}).toList();
+        List<Object[]> pairArgs = ids.stream().map(id -> new Object[]{id, id}).toList();
+        jdbcTemplate.batchUpdate("DELETE FROM card_spending WHERE card_id = ?", args);
+        jdbcTemplate.batchUpdate("DELETE FROM holds WHERE card_id = ?", args);
+        jdbcTemplate.batchUpdate("DELETE FROM scheduled_transfer_runs WHERE scheduled_transfer_id IN "
+                + "(SELECT id FROM scheduled_transfers WHERE from_card_id = ? OR to_card_id = ?)", pairArgs);
+        jdbcTemplate.batchUpdate("DELETE FROM scheduled_transfers WHERE from_card_id = ? OR to_card_id = ?", pairArgs);
+        jdbcTemplate.batchUpdate("DELETE FROM balance_ledger WHERE from_card_id = ? OR to_card_id = ?", pairArgs);
+        jdbcTemplate.batchUpdate("DELETE FROM cards WHERE id = ? AND deleted_at IS NOT NULL", args);
+        return ids.size();
+    }
+
+    private int purgeUserBatch(Timestamp cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT u.id FROM users u "
+                        + "WHERE u.deleted_at IS NOT NULL AND u.deleted_at < ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM cards c WHERE c.user_id = u.id) ORDER BY u.id LIMIT ?",
+                Long.class, cutoff, properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> args = ids.stream().map(id -> new Object[]{id}).toList();
+        jdbcTemplate.batchUpdate("DELETE FROM user_roles WHERE user_id = ?", args);
+        jdbcTemplate.batchUpdate("DELETE FROM users WHERE id = ? AND deleted_at IS NOT NULL", args);
+        return ids.size();
+    }
+}
@@ -4,13 +4,19 @@ import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.ApiErrorException;
 import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.HoldRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
 import com.example.bankcards.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -21,9 +27,14 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameIndex usernameIndex;
+    private final AdminStatsService adminStatsService;
+    private final CardRepository cardRepository;
+    private final HoldRepository holdRepository;
+    private final ScheduledTransferRepository scheduledTransferRepository;
 
     public User createUser(String username, String password, Set<String> rolesFromRequest) {
-        if (userRepository.existsByUsername(username)) {
+        if (usernameIndex.mightExist(username) && userRepository.existsByUsername(username)) {
             throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
         }
 
@@ -38,14 +49,21 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(password));
         user.setRoles(mappedRoles);
 
-        return userRepository.save(user);
+        User saved = saveUnique(user);
+        usernameIndex.add(username);
+        adminStatsService.onUserCreated(mappedRoles);
+        return saved;
     }
 
     public User updateUser(Long userId, String newUsername, String newPassword, Set<String> newRoles) {
         User user = getUserOrThrow(userId);
+        String oldUsername = user.getUsername();
+        Set<Role> oldRoles = user.getRoles() != null ? Set.copyOf(user.getRoles()) : Set.of();
 
         if (newUsername != null && !newUsername.isBlank()) {
-            if (!newUsername.equals(user.getUsername()) && userRepository.existsByUsername(newUsername)) {
+            if (!newUsername.equals(oldUsername)
+                    && usernameIndex.mightExist(newUsername)
+                    && userRepository.existsByUsername(newUsername)) {
                 throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
             }
             user.setUsername(newUsername);
@@ -62,14 +80,32 @@ public class UserService {
             user.setRoles(mappedRoles);
         }
 
-        return userRepository.save(user);
+        User saved = saveUnique(user);
+        if (!saved.getUsername().equals(oldUsername)) {
+            usernameIndex.add(saved.getUsername());
+            usernameIndex.markRemoved();
+        }
+        Set<Role> updatedRoles = user.getRoles() != null ? user.getRoles() : Set.of();
+        if (!oldRoles.equals(updatedRoles)) {
+            adminStatsService.onUserRolesChanged(oldRoles, updatedRoles);
+        }
+        return saved;
     }
 
+    // пользователь и его карты только помечаются удалёнными, строки удалит SoftDeletePurger
+    @Transactional
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new ApiErrorException(ErrorStatus.USER_NOT_FOUND);
-        }
-        userRepository.deleteById(userId);
+        User user = getUserOrThrow(userId);
+        Set<Role> roles = user.getRoles() != null ? Set.copyOf(user.getRoles()) : Set.of();
+        LocalDateTime now = LocalDateTime.now();
+        holdRepository.releaseByUserId(userId);
+        scheduledTransferRepository.cancelByUserId(userId);
+        userRepository.softDelete(userId, now);
+        // массовое удаление карт не публикует CardEvent, поэтому счётчики статистики сдвигаются здесь
+        adminStatsService.onUserCardsDeleted(userId);
+        cardRepository.softDeleteByUserId(userId, now);
+        usernameIndex.markRemoved();
+        adminStatsService.onUserDeleted(roles);
     }
 
     public Page<User> getAllUsers(Pageable pageable) {
@@ -80,6 +116,16 @@ public class UserService {
         return getUserOrThrow(userId);
     }
 
+    // Уникальность имени окончательно проверяет ограничение в БД: гонка двух регистраций
+    // одного имени заканчивается той же ошибкой валидации, что и предварительная проверка
+    private User saveUnique(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+        }
+    }
+
     private User getUserOrThrow(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new ApiErrorException(ErrorStatus.USER_NOT_FOUND));
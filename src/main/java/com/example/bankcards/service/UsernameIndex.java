@@ -0,0 +1,90 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Фильтр Блума по занятым именам пользователей: отрицательный ответ означает, что имя
+ * точно свободно и проверку в БД можно пропустить. До окончания прогрева отвечает
+ * "возможно занято". Окончательно уникальность гарантирует ограничение в БД.
+ */
+@Slf4j
+@Service
+public class UsernameIndex {
+
+    private final UserRepository userRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private final AtomicLong removedSinceBuild = new AtomicLong();
+
+    public UsernameIndex(UserRepository userRepository,
+                         @Value("${username-filter.expected-insertions:1000000}") long expectedInsertions,
+                         @Value("${username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        BloomFilter fresh = new BloomFilter(expectedInsertions, falsePositiveRate);
+        building = fresh;
+        removedSinceBuild.set(0);
+        AtomicLong count = new AtomicLong();
+        try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+            usernames.forEach(username -> {
+                fresh.put(username);
+                count.incrementAndGet();
+            });
+        }
+        filter = fresh;
+        building = null;
+        log.info("Username filter built with {} entries", count.get());
+    }
+
+    @Scheduled(fixedDelayString = "${username-filter.rebuild-check-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void rebuildIfStale() {
+        if (filter != null && removedSinceBuild.get() > expectedInsertions / 10) {
+            warmUp();
+        }
+    }
+
+    public boolean mightExist(String username) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(username);
+    }
+
+    public void add(String username) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(username);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(username);
+        }
+    }
+
+    /**
+     * Удалённые и переименованные имена остаются в фильтре и лишь повышают долю
+     * ложноположительных ответов; когда их накапливается много, фильтр перестраивается.
+     */
+    public void markRemoved() {
+        removedSinceBuild.incrementAndGet();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bankcards.service.audit;
+
+import com.example.bankcards.config.AuditProperties;
+import com.example.bankcards.event.CardEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class AuditEventListener {
+
+    private final AuditProperties properties;
+    private final AuditPipeline pipeline;
+    private final AuditEventWriter writer;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(CardEvent event) {
+        if (properties.isEnabled() && properties.getMode() == AuditProperties.Mode.ASYNC) {
+            pipeline.offer(event);
+        }
+    }
+
+    // Ошибка записи в outbox откатывает бизнес-транзакцию: изменение без записи аудита невозможно
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBeforeCommit(CardEvent event) {
+        if (properties.isEnabled() && properties.getMode() == AuditProperties.Mode.OUTBOX) {
+            writer.writeOutbox(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.relay-interval-ms:500}")
+    public void relayOutbox() {
+        if (!properties.isEnabled() || properties.getMode() != AuditProperties.Mode.OUTBOX) {
+            return;
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        while (writer.relayOutbox(batchSize) == batchSize) {
+            // переносим, пока outbox не опустеет
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bankcards.service.audit;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class AuditEventWriter {
+
+    private static final String COLUMNS =
+            "event_type, card_id, owner_id, previous_status, status, counterpart_card_id, amount, actor, occurred_at";
+    private static final String INSERT_EVENT =
+            "INSERT INTO audit_events (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_OUTBOX =
+            "INSERT INTO audit_outbox (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_OUTBOX =
+            "SELECT id, " + COLUMNS + " FROM audit_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_OUTBOX = "DELETE FROM audit_outbox WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void writeEvents(List<CardEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), AuditEventWriter::bind);
+    }
+
+    public void writeOutbox(CardEvent event) {
+        jdbcTemplate.update(INSERT_OUTBOX, ps -> bind(ps, event));
+    }
+
+    /**
+     * Переносит пачку записей из audit_outbox в audit_events одной транзакцией.
+     *
+     * @return количество перенесённых записей
+     */
+    @Transactional
+    public int relayOutbox(int batchSize) {
+        List<Long> ids = new ArrayList<>();
+        List<CardEvent> events = jdbcTemplate.query(SELECT_OUTBOX, (rs, rowNum) -> {
+            ids.add(rs.getLong("id"));
+            return new CardEvent(
+                    CardEventType.valueOf(rs.getString("event_type")),
+                    rs.getObject("card_id", Long.class),
+                    rs.getObject("owner_id", Long.class),
+                    status(rs.getString("previous_status")),
+                    status(rs.getString("status")),
+                    null,
+                    rs.getObject("counterpart_card_id", Long.class),
+                    rs.getBigDecimal("amount"),
+                    rs.getString("actor"),
+                    rs.getTimestamp("occurred_at").toInstant());
+        }, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        writeEvents(events);
+        jdbcTemplate.batchUpdate(DELETE_OUTBOX, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+        return events.size();
+    }
+
+    private static void bind(PreparedStatement ps, CardEvent event) throws SQLException {
+        ps.setString(1, event.type().name());
+        setLong(ps, 2, event.cardId());
+        setLong(ps, 3, event.ownerId());
+        ps.setString(4, event.previousStatus() != null ? event.previousStatus().name() : null);
+        ps.setString(5, event.status() != null ? event.status().name() : null);
+        setLong(ps, 6, event.counterpartCardId());
+        ps.setBigDecimal(7, event.amount());
+        ps.setString(8, event.actor());
+        ps.setTimestamp(9, Timestamp.from(event.occurredAt()));
+    }
+
+    private static CardStatus status(String value) {
+        return value != null ? CardStatus.valueOf(value) : null;
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.bankcards.service.audit;
+
+import com.example.bankcards.config.AuditProperties;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.util.SampledLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный кольцевой буфер событий аудита и фоновый писатель, который
+ * вычитывает его пачками и пишет в audit_events batch-insert'ом.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditPipeline {
+
+    private final AuditProperties properties;
+    private final AuditEventWriter writer;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final SampledLog dropLog = new SampledLog();
+
+    private ArrayBlockingQueue<CardEvent> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(Math.max(1, properties.getBufferCapacity()));
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join();
+    }
+
+    public void offer(CardEvent event) {
+        boolean accepted = switch (properties.getOverflowPolicy()) {
+            case DROP -> buffer.offer(event);
+            case BLOCK -> offerBlocking(event);
+            case CALLER_RUNS -> buffer.offer(event) || writeInCaller(event);
+        };
+        if (accepted) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+            logDrop(event);
+        }
+    }
+
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public int getBacklog() {
+        return buffer.size();
+    }
+
+    /** Возраст самого старого события, ещё не записанного в БД */
+    public Duration getLag() {
+        CardEvent oldest = buffer.peek();
+        return oldest == null ? Duration.ZERO : Duration.between(oldest.occurredAt(), Instant.now());
+    }
+
+    // при переполнении события теряются потоком — пишем не чаще раза в интервал, с числом пропущенных
+    private void logDrop(CardEvent event) {
+        long suppressed = dropLog.tryAcquire(System.nanoTime(), properties.getDropLogInterval().toNanos());
+        if (suppressed >= 0) {
+            log.warn("Audit buffer full, dropped {} event for card {} and {} more since last report "
+                            + "(dropped total {}, backlog {}, lag {})",
+                    event.type(), event.cardId(), suppressed, getDropped(), getBacklog(), getLag());
+        }
+    }
+
+    private boolean offerBlocking(CardEvent event) {
+        try {
+            return buffer.offer(event, properties.getBlockTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean writeInCaller(CardEvent event) {
+        writeWithRetry(List.of(event));
+        return true;
+    }
+
+    private void writeLoop() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            CardEvent first;
+            try {
+                first = buffer.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            List<CardEvent> batch = new ArrayList<>(batchSize);
+            batch.add(first);
+            buffer.drainTo(batch, batchSize - 1);
+            writeWithRetry(batch);
+        }
+    }
+
+    private void writeWithRetry(List<CardEvent> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writer.writeEvents(batch);
+                written.add(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getWriteAttempts()) {
+                    failed.add(batch.size());
+                    log.error("Failed to write {} audit events", batch.size(), e);
+                    return;
+                }
+                log.warn("Audit batch write failed, attempt {}", attempt, e);
+                try {
+                    Thread.sleep(properties.getWriteRetryBackoffMs());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
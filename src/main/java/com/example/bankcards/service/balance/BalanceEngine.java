@@ -0,0 +1,282 @@
+package com.example.bankcards.service.balance;
+
+import com.example.bankcards.config.BalanceEngineProperties;
+import com.example.bankcards.entity.BalanceLedgerEntry;
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Балансы карт в памяти, разбитые по шардам (cardId % shards). Списание выполняется
+ * в шарде отправителя, зачисление — в шарде получателя, после чего запись уходит
+ * во flusher, который пачками пишет balance_ledger и затем применяет дельты к cards.balance.
+ * Перевод подтверждается только после коммита записи журнала; неприменённые записи
+ * журнала учитываются при загрузке баланса и доигрываются при старте. Движок работает только
+ * в одном инстансе приложения, это обеспечивает {@link BalanceEngineInstanceLock}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "balance-engine", name = "enabled", havingValue = "true")
+@DependsOn("balanceEngineInstanceLock")
+public class BalanceEngine {
+
+    private final BalanceEngineProperties properties;
+    private final BalanceLedgerService ledgerService;
+
+    private final Queue<PendingTransfer> pending = new ConcurrentLinkedQueue<>();
+    private BalanceShard[] shards;
+    private Thread flusher;
+    private volatile boolean running;
+    private volatile boolean unappliedBacklog;
+
+    @PostConstruct
+    public void start() {
+        recover();
+
+        shards = new BalanceShard[Math.max(1, properties.getShards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new BalanceShard(i, ledgerService::loadBalance);
+            shards[i].start();
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "balance-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Balance engine started with {} shards", shards.length);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (BalanceShard shard : shards) {
+            shard.stop();
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join();
+    }
+
+    /**
+     * Ждёт перевод не дольше operation-timeout-ms, пока шард отправителя не начал его исполнять;
+     * начатый перевод уже нельзя отменить, поэтому его результат дожидается без таймаута —
+     * иначе клиент получил бы ошибку, а деньги всё равно бы ушли.
+     */
+    public void transfer(Long fromCardId, Long toCardId, BigDecimal amount) {
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture<Void> result = transferAsync(fromCardId, toCardId, amount, started);
+        try {
+            await(result);
+        } catch (OperationTimeoutException e) {
+            if (started.compareAndSet(false, true)) {
+                throw new ApiErrorException(ErrorStatus.INTERNAL_ERROR);
+            }
+            awaitStarted(result);
+        }
+    }
+
+    public BigDecimal getBalance(Long cardId) {
+        return await(getBalanceAsync(cardId));
+    }
+
+    public CompletableFuture<Void> transferAsync(Long fromCardId, Long toCardId, BigDecimal amount) {
+        return transferAsync(fromCardId, toCardId, amount, new AtomicBoolean());
+    }
+
+    private CompletableFuture<Void> transferAsync(Long fromCardId, Long toCardId, BigDecimal amount, AtomicBoolean started) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        BalanceShard fromShard = shardFor(fromCardId);
+        fromShard.submit(() -> {
+            if (!started.compareAndSet(false, true)) {
+                // вызывающий уже получил отказ по таймауту — перевод не исполняется
+                return;
+            }
+            BigDecimal fromBalance;
+            try {
+                fromBalance = fromShard.balance(fromCardId);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (fromBalance.compareTo(amount) < 0) {
+                result.completeExceptionally(new ApiErrorException(ErrorStatus.INSUFFICIENT_FUNDS));
+                return;
+            }
+            fromShard.setBalance(fromCardId, fromBalance.subtract(amount));
+
+            BalanceShard toShard = shardFor(toCardId);
+            toShard.submit(() -> {
+                try {
+                    toShard.setBalance(toCardId, toShard.balance(toCardId).add(amount));
+                } catch (RuntimeException e) {
+                    // получатель не загрузился — возвращаем списанное в шард отправителя
+                    fromShard.submit(() -> fromShard.setBalance(fromCardId, fromShard.balance(fromCardId).add(amount)));
+                    result.completeExceptionally(e);
+                    return;
+                }
+                enqueue(new PendingTransfer(BalanceLedgerEntry.builder()
+                        .fromCardId(fromCardId)
+                        .toCardId(toCardId)
+                        .amount(amount)
+                        .createdAt(LocalDateTime.now())
+                        .applied(false)
+                        .build(), result));
+            });
+        });
+        return result;
+    }
+
+    public CompletableFuture<BigDecimal> getBalanceAsync(Long cardId) {
+        CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+        BalanceShard shard = shardFor(cardId);
+        shard.submit(() -> {
+            try {
+                result.complete(shard.balance(cardId));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private BalanceShard shardFor(Long cardId) {
+        return shards[(int) Math.floorMod(cardId, (long) shards.length)];
+    }
+
+    private void enqueue(PendingTransfer transfer) {
+        pending.offer(transfer);
+        LockSupport.unpark(flusher);
+    }
+
+    private void recover() {
+        int applied;
+        int total = 0;
+        while ((applied = ledgerService.applyPending(properties.getFlushBatchSize())) > 0) {
+            total += applied;
+        }
+        if (total > 0) {
+            log.info("Balance engine recovered {} unapplied ledger entries", total);
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingTransfer> batch = new ArrayList<>(properties.getFlushBatchSize());
+        while (running || !pending.isEmpty()) {
+            PendingTransfer next;
+            while (batch.size() < properties.getFlushBatchSize() && (next = pending.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                if (unappliedBacklog) {
+                    retryBacklog();
+                }
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(properties.getFlushRetryBackoffMs()));
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingTransfer> batch) {
+        List<BalanceLedgerEntry> entries = batch.stream().map(PendingTransfer::entry).toList();
+
+        // Изменения уже применены в памяти, поэтому запись журнала повторяется до успеха
+        while (true) {
+            try {
+                ledgerService.append(entries);
+                break;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Balance ledger flush of {} entries lost on shutdown", entries.size(), e);
+                    batch.forEach(p -> p.result().completeExceptionally(new ApiErrorException(ErrorStatus.INTERNAL_ERROR)));
+                    return;
+                }
+                log.warn("Balance ledger flush failed, retrying: {}", e.getMessage());
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(properties.getFlushRetryBackoffMs()));
+            }
+        }
+        batch.forEach(p -> p.result().complete(null));
+
+        try {
+            ledgerService.apply(entries);
+        } catch (RuntimeException e) {
+            log.warn("Applying balance ledger to cards failed, will retry: {}", e.getMessage());
+            unappliedBacklog = true;
+        }
+    }
+
+    private void retryBacklog() {
+        try {
+            recover();
+            unappliedBacklog = false;
+        } catch (RuntimeException e) {
+            log.warn("Balance ledger backlog retry failed: {}", e.getMessage());
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(properties.getOperationTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            throw new OperationTimeoutException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiErrorException(ErrorStatus.INTERNAL_ERROR);
+        }
+    }
+
+    private void awaitStarted(CompletableFuture<Void> result) {
+        // flusher завершает каждый принятый перевод: успехом после записи журнала или ошибкой при остановке
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    result.get();
+                    return;
+                } catch (ExecutionException e) {
+                    throw unwrap(e);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof ApiErrorException apiError) {
+            return apiError;
+        }
+        return new IllegalStateException("Ошибка движка балансов", e.getCause());
+    }
+
+    private static class OperationTimeoutException extends ApiErrorException {
+        OperationTimeoutException() {
+            super(ErrorStatus.INTERNAL_ERROR);
+        }
+    }
+
+    private record PendingTransfer(BalanceLedgerEntry entry, CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.service.balance;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Не даёт движку балансов работать в двух инстансах сразу: балансы шардов авторитетны в памяти,
+ * и второй инстанс одобрял бы списания по своей копии. На PostgreSQL при старте берётся
+ * сессионный advisory lock на отдельном соединении из пула, которое держится до остановки
+ * движка; если замок занят, приложение не стартует. Обрыв этого соединения снимает замок,
+ * поэтому после потери связи с БД инстанс с движком нужно перезапустить.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "balance-engine", name = "enabled", havingValue = "true")
+public class BalanceEngineInstanceLock {
+
+    // произвольный, но постоянный ключ pg_advisory_lock для движка балансов
+    static final long LOCK_KEY = 0x62616c616e6365L;
+
+    private final DataSource dataSource;
+
+    private Connection connection;
+
+    @PostConstruct
+    public void acquire() throws SQLException {
+        Connection candidate = dataSource.getConnection();
+        try {
+            if (!"PostgreSQL".equals(candidate.getMetaData().getDatabaseProductName())) {
+                log.warn("Balance engine instance lock is PostgreSQL-only, running without it");
+                candidate.close();
+                return;
+            }
+            try (PreparedStatement statement = candidate.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, LOCK_KEY);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    if (!rs.getBoolean(1)) {
+                        throw new IllegalStateException(
+                                "Движок балансов уже запущен в другом инстансе: balance-engine допускает только один инстанс");
+                    }
+                }
+            }
+            connection = candidate;
+            log.info("Balance engine instance lock acquired");
+        } catch (SQLException | RuntimeException e) {
+            candidate.close();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void release() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        // соединение вернётся в пул, а не закроет сессию, поэтому замок снимается явно
+        try (Connection held = connection;
+             PreparedStatement statement = held.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            statement.execute();
+        } finally {
+            connection = null;
+        }
+    }
+}
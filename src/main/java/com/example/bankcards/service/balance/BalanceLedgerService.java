@@ -0,0 +1,62 @@
+package com.example.bankcards.service.balance;
+
+import com.example.bankcards.entity.BalanceLedgerEntry;
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.repository.BalanceLedgerRepository;
+import com.example.bankcards.repository.CardRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceLedgerService {
+
+    private final BalanceLedgerRepository ledgerRepository;
+    private final CardRepository cardRepository;
+
+    @Transactional
+    public BigDecimal loadBalance(Long cardId) {
+        BigDecimal persisted = cardRepository.findBalanceById(cardId)
+                .orElseThrow(() -> new ApiErrorException(ErrorStatus.CARD_NOT_FOUND));
+        BigDecimal base = persisted != null ? persisted : BigDecimal.ZERO;
+        return base.add(ledgerRepository.sumUnappliedDelta(cardId));
+    }
+
+    @Transactional
+    public void append(List<BalanceLedgerEntry> entries) {
+        ledgerRepository.saveAll(entries);
+    }
+
+    @Transactional
+    public void apply(List<BalanceLedgerEntry> entries) {
+        // TreeMap: строки карт блокируются в порядке id, параллельные flush не дедлочатся
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        for (BalanceLedgerEntry entry : entries) {
+            deltas.merge(entry.getFromCardId(), entry.getAmount().negate(), BigDecimal::add);
+            deltas.merge(entry.getToCardId(), entry.getAmount(), BigDecimal::add);
+        }
+        deltas.forEach((cardId, delta) -> {
+            if (delta.signum() != 0) {
+                cardRepository.addToBalance(cardId, delta);
+            }
+        });
+        ledgerRepository.markApplied(entries.stream().map(BalanceLedgerEntry::getId).toList());
+    }
+
+    @Transactional
+    public int applyPending(int batchSize) {
+        List<BalanceLedgerEntry> pending = ledgerRepository.findByAppliedFalseOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (!pending.isEmpty()) {
+            apply(pending);
+        }
+        return pending.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.service.balance;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Однопоточный владелец балансов своей части карт: все задачи шарда выполняются
+ * строго по очереди в одном потоке, поэтому состояние не требует синхронизации.
+ */
+@Slf4j
+class BalanceShard implements Runnable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Map<Long, BigDecimal> balances = new HashMap<>();
+    private final Function<Long, BigDecimal> loader;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    BalanceShard(int index, Function<Long, BigDecimal> loader) {
+        this.loader = loader;
+        this.thread = new Thread(this, "balance-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    void submit(Runnable task) {
+        tasks.offer(task);
+        LockSupport.unpark(thread);
+    }
+
+    BigDecimal balance(Long cardId) {
+        return balances.computeIfAbsent(cardId, loader);
+    }
+
+    void setBalance(Long cardId, BigDecimal balance) {
+        balances.put(cardId, balance);
+    }
+
+    @Override
+    public void run() {
+        while (running || !tasks.isEmpty()) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Balance shard task failed", e);
+            }
+        }
+    }
+}
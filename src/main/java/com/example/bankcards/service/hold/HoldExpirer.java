@@ -0,0 +1,121 @@
+package com.example.bankcards.service.hold;
+
+import com.example.bankcards.config.HoldProperties;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Снимает истёкшие холды пачками: каждая пачка — одна транзакция, в которой строки карт
+ * блокируются в порядке возрастания id (как и в CardService), холды условно переводятся
+ * ACTIVE -> EXPIRED, а held_amount карт уменьшается на сумму действительно снятых холдов.
+ */
+@Component
+@RequiredArgsConstructor
+public class HoldExpirer {
+
+    private final HoldProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    /** @return число снятых холдов из переданных; ещё не истёкшие и уже закрытые пропускаются */
+    public int expire(Collection<Long> holdIds) {
+        List<Long> ids = new ArrayList<>(holdIds);
+        int total = 0;
+        for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + properties.getBatchSize()));
+            Integer expired = transactionTemplate.execute(status -> expireBatch(batch));
+            total += expired == null ? 0 : expired;
+        }
+        return total;
+    }
+
+    /** Снимает истёкшие холды, о которых этот инстанс не знает: поставленные другими инстансами или до рестарта. */
+    public int expireDue() {
+        int total = 0;
+        while (true) {
+            List<Long> due = jdbcTemplate.queryForList(
+                    "SELECT id FROM holds WHERE status = 'ACTIVE' AND expires_at <= ? ORDER BY expires_at LIMIT ?",
+                    Long.class, Timestamp.valueOf(LocalDateTime.now(clock)), properties.getBatchSize());
+            if (due.isEmpty()) {
+                return total;
+            }
+            int expired = expire(due);
+            total += expired;
+            if (expired == 0) {
+                return total;
+            }
+        }
+    }
+
+    private int expireBatch(List<Long> holdIds) {
+        String holdPlaceholders = placeholders(holdIds.size());
+        List<Object> args = new ArrayList<>(holdIds);
+        args.add(Timestamp.valueOf(LocalDateTime.now(clock)));
+        List<DueHold> holds = jdbcTemplate.query(
+                "SELECT id, card_id, amount FROM holds WHERE id IN (" + holdPlaceholders + ") "
+                        + "AND status = 'ACTIVE' AND expires_at <= ?",
+                (rs, i) -> new DueHold(rs.getLong("id"), rs.getLong("card_id"), rs.getBigDecimal("amount")),
+                args.toArray());
+        if (holds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> cardIds = holds.stream().map(DueHold::cardId).distinct().sorted().toList();
+        Map<Long, CardRef> cards = new HashMap<>();
+        jdbcTemplate.query("SELECT id, user_id, status FROM cards WHERE id IN (" + placeholders(cardIds.size()) + ") "
+                        + "ORDER BY id FOR UPDATE",
+                (RowCallbackHandler) rs -> cards.put(rs.getLong("id"),
+                        new CardRef(rs.getLong("user_id"), CardStatus.valueOf(rs.getString("status")))),
+                cardIds.toArray());
+
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE holds SET status = 'EXPIRED' WHERE id = ? AND status = 'ACTIVE'",
+                holds.stream().map(hold -> new Object[]{hold.id()}).toList());
+        Map<Long, BigDecimal> released = new TreeMap<>();
+        List<DueHold> expired = new ArrayList<>();
+        for (int i = 0; i < holds.size(); i++) {
+            if (updated[i] > 0) {
+                DueHold hold = holds.get(i);
+                released.merge(hold.cardId(), hold.amount(), BigDecimal::add);
+                expired.add(hold);
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE cards SET held_amount = held_amount - ? WHERE id = ?",
+                released.entrySet().stream().map(e -> new Object[]{e.getValue(), e.getKey()}).toList());
+
+        Instant now = clock.instant();
+        for (DueHold hold : expired) {
+            CardRef card = cards.get(hold.cardId());
+            Long ownerId = card != null ? card.ownerId() : null;
+            CardStatus status = card != null ? card.status() : null;
+            eventPublisher.publishEvent(new CardEvent(CardEventType.HOLD_EXPIRED, hold.cardId(), ownerId,
+                    status, status, null, null, hold.amount(), null, now));
+        }
+        return expired.size();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private record DueHold(Long id, Long cardId, BigDecimal amount) {
+    }
+
+    private record CardRef(Long ownerId, CardStatus status) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bankcards.service.hold;
+
+import com.example.bankcards.config.HoldProperties;
+import com.example.bankcards.event.HoldPlacedEvent;
+import com.example.bankcards.util.TimerWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Истечение холдов в процессе: холды этого инстанса лежат в колесе таймеров, отдельный поток
+ * продвигает его по тикам и снимает наступившие холды пачками через {@link HoldExpirer}.
+ * При старте в колесо загружаются все активные холды; холды других инстансов подбирает
+ * периодический проход по индексу (status, expires_at).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HoldExpiryScheduler {
+
+    private final HoldProperties properties;
+    private final HoldExpirer expirer;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    private TimerWheel<Long> wheel;
+    private Thread ticker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        wheel = new TimerWheel<>(properties.getWheelSlots(), properties.getTickMs());
+        LocalDateTime now = LocalDateTime.now(clock);
+        jdbcTemplate.query("SELECT id, expires_at FROM holds WHERE status = 'ACTIVE'",
+                (RowCallbackHandler) rs -> schedule(rs.getLong("id"), rs.getTimestamp("expires_at").toLocalDateTime(), now));
+
+        running = true;
+        ticker = new Thread(this::tickLoop, "hold-expiry");
+        ticker.setDaemon(true);
+        ticker.start();
+        log.info("Hold expiry scheduler started with {} active holds", wheel.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(ticker);
+        ticker.join();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHoldPlaced(HoldPlacedEvent event) {
+        schedule(event.holdId(), event.expiresAt(), LocalDateTime.now(clock));
+    }
+
+    @Scheduled(initialDelayString = "${holds.sweep-interval-ms:60000}", fixedDelayString = "${holds.sweep-interval-ms:60000}")
+    public void sweep() {
+        int expired = expirer.expireDue();
+        if (expired > 0) {
+            log.info("Hold sweep expired {} holds", expired);
+        }
+    }
+
+    private void schedule(Long holdId, LocalDateTime expiresAt, LocalDateTime now) {
+        wheel.schedule(holdId, Math.max(0, Duration.between(now, expiresAt).toMillis()));
+    }
+
+    private void tickLoop() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(wheel.getTickMillis());
+        long nextTick = System.nanoTime() + tickNanos;
+        while (running) {
+            long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            List<Long> due = new ArrayList<>();
+            // после паузы (GC, перегрузка) колесо догоняет пропущенные тики
+            while (nextTick - System.nanoTime() <= 0) {
+                due.addAll(wheel.advance());
+                nextTick += tickNanos;
+            }
+            if (!due.isEmpty()) {
+                expireQuietly(due);
+            }
+        }
+    }
+
+    private void expireQuietly(List<Long> due) {
+        try {
+            expirer.expire(due);
+        } catch (RuntimeException e) {
+            // не снятые сейчас холды подберёт периодический проход
+            log.warn("Hold expiry of {} holds failed: {}", due.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.bankcards.service.limit;
+
+import com.example.bankcards.config.SpendingLimitProperties;
+import com.example.bankcards.entity.Card;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.DatabaseMetaData;
+import java.time.Clock;
+
+/**
+ * Лимиты исходящих переводов карты за скользящие сутки и 30 дней. Проверка идёт по окну трат
+ * в памяти ({@link SpendingWindow}), без суммирования истории переводов. Траты всех карт пишутся
+ * почасовыми корзинами в card_spending в транзакции перевода: из них окно восстанавливается после
+ * рестарта и перечитывается раз в spending-limit.sync-interval, чтобы учесть переводы других инстансов.
+ */
+@Service
+public class SpendingLimitService {
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    // первая трата карты в часе и гонка двух переводов за одну корзину обходятся одним
+    // атомарным оператором в транзакции перевода, без отдельной транзакции на создание строки
+    private static final String UPSERT_BUCKET_POSTGRES = "INSERT INTO card_spending (card_id, bucket_hour, amount) "
+            + "VALUES (?, ?, ?) ON CONFLICT (card_id, bucket_hour) DO UPDATE SET amount = card_spending.amount + EXCLUDED.amount";
+
+    // H2 (тесты) не знает ON CONFLICT ... DO UPDATE
+    private static final String UPSERT_BUCKET_MERGE = "MERGE INTO card_spending s USING (VALUES (CAST(? AS BIGINT), "
+            + "CAST(? AS BIGINT), CAST(? AS NUMERIC(19,2)))) AS v (card_id, bucket_hour, amount) "
+            + "ON s.card_id = v.card_id AND s.bucket_hour = v.bucket_hour "
+            + "WHEN MATCHED THEN UPDATE SET amount = s.amount + v.amount "
+            + "WHEN NOT MATCHED THEN INSERT (card_id, bucket_hour, amount) VALUES (v.card_id, v.bucket_hour, v.amount)";
+
+    private final SpendingLimitProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final Cache<Long, SpendingWindow> windows;
+    private volatile String upsertBucketSql;
+
+    public SpendingLimitService(SpendingLimitProperties properties, JdbcTemplate jdbcTemplate, Clock clock) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCards())
+                .expireAfterWrite(properties.getSyncInterval())
+                .build();
+    }
+
+    /**
+     * Проверяет лимиты карты-отправителя и учитывает перевод. Вызывается в транзакции перевода
+     * до списания; если транзакция откатится, сумма вычитается из окна обратно.
+     */
+    public void reserve(Card from, BigDecimal amount) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long hour = currentHour();
+        if (from.getDailyLimit() != null || from.getMonthlyLimit() != null) {
+            SpendingWindow window = windows.get(from.getId(), cardId -> load(cardId, hour));
+            window.tryAdd(hour, amount, from.getDailyLimit(), from.getMonthlyLimit());
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            window.record(hour, amount.negate());
+                        }
+                    }
+                });
+            }
+        }
+        persist(from.getId(), hour, amount);
+    }
+
+    @Scheduled(initialDelayString = "${spending-limit.prune-interval-ms:3600000}", fixedDelayString = "${spending-limit.prune-interval-ms:3600000}")
+    public void pruneExpiredBuckets() {
+        jdbcTemplate.update("DELETE FROM card_spending WHERE bucket_hour < ?", SpendingWindow.oldestHour(currentHour()));
+    }
+
+    private SpendingWindow load(Long cardId, long hour) {
+        SpendingWindow window = new SpendingWindow(hour);
+        jdbcTemplate.query("SELECT bucket_hour, amount FROM card_spending WHERE card_id = ? AND bucket_hour >= ?",
+                (RowCallbackHandler) rs -> window.record(rs.getLong("bucket_hour"), rs.getBigDecimal("amount")), cardId, SpendingWindow.oldestHour(hour));
+        return window;
+    }
+
+    private void persist(Long cardId, long hour, BigDecimal amount) {
+        jdbcTemplate.update(upsertBucketSql(), cardId, hour, amount);
+    }
+
+    private String upsertBucketSql() {
+        String sql = upsertBucketSql;
+        if (sql == null) {
+            sql = isPostgres() ? UPSERT_BUCKET_POSTGRES : UPSERT_BUCKET_MERGE;
+            upsertBucketSql = sql;
+        }
+        return sql;
+    }
+
+    private boolean isPostgres() {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot determine database product for card_spending upsert", e);
+        }
+    }
+
+    private long currentHour() {
+        return Math.floorDiv(clock.millis(), HOUR_MILLIS);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bankcards.service.limit;
+
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Скользящие окна исходящих переводов одной карты: сутки — 24 часовые корзины, 30 дней — 30 суточных.
+ * Суммы окон хранятся отдельно, поэтому проверка лимита — O(1); при сдвиге времени выпавшие
+ * корзины вычитаются из сумм. Время — номер часа от эпохи (UTC).
+ */
+final class SpendingWindow {
+
+    static final int HOURS = 24;
+    static final int DAYS = 30;
+
+    private final BigDecimal[] hourBuckets = new BigDecimal[HOURS];
+    private final BigDecimal[] dayBuckets = new BigDecimal[DAYS];
+    private long currentHour;
+    private long currentDay;
+    private BigDecimal last24h = BigDecimal.ZERO;
+    private BigDecimal last30d = BigDecimal.ZERO;
+
+    SpendingWindow(long hour) {
+        Arrays.fill(hourBuckets, BigDecimal.ZERO);
+        Arrays.fill(dayBuckets, BigDecimal.ZERO);
+        this.currentHour = hour;
+        this.currentDay = Math.floorDiv(hour, HOURS);
+    }
+
+    /** Первый час, траты которого ещё попадают в 30-дневное окно. */
+    static long oldestHour(long hour) {
+        return (Math.floorDiv(hour, HOURS) - DAYS + 1) * HOURS;
+    }
+
+    synchronized void tryAdd(long hour, BigDecimal amount, BigDecimal dailyLimit, BigDecimal monthlyLimit) {
+        advanceTo(hour);
+        if (dailyLimit != null && last24h.add(amount).compareTo(dailyLimit) > 0) {
+            throw new ApiErrorException(ErrorStatus.DAILY_LIMIT_EXCEEDED);
+        }
+        if (monthlyLimit != null && last30d.add(amount).compareTo(monthlyLimit) > 0) {
+            throw new ApiErrorException(ErrorStatus.MONTHLY_LIMIT_EXCEEDED);
+        }
+        record(hour, amount);
+    }
+
+    synchronized void record(long hour, BigDecimal amount) {
+        advanceTo(hour);
+        if (currentHour - hour < HOURS) {
+            int slot = (int) Math.floorMod(hour, (long) HOURS);
+            hourBuckets[slot] = hourBuckets[slot].add(amount);
+            last24h = last24h.add(amount);
+        }
+        long day = Math.floorDiv(hour, HOURS);
+        if (currentDay - day < DAYS) {
+            int slot = (int) Math.floorMod(day, (long) DAYS);
+            dayBuckets[slot] = dayBuckets[slot].add(amount);
+            last30d = last30d.add(amount);
+        }
+    }
+
+    synchronized BigDecimal last24h(long hour) {
+        advanceTo(hour);
+        return last24h;
+    }
+
+    synchronized BigDecimal last30d(long hour) {
+        advanceTo(hour);
+        return last30d;
+    }
+
+    private void advanceTo(long hour) {
+        if (hour > currentHour) {
+            long steps = Math.min(hour - currentHour, HOURS);
+            for (long i = 1; i <= steps; i++) {
+                int slot = (int) Math.floorMod(currentHour + i, (long) HOURS);
+                last24h = last24h.subtract(hourBuckets[slot]);
+                hourBuckets[slot] = BigDecimal.ZERO;
+            }
+            currentHour = hour;
+        }
+        long day = Math.floorDiv(hour, HOURS);
+        if (day > currentDay) {
+            long steps = Math.min(day - currentDay, DAYS);
+            for (long i = 1; i <= steps; i++) {
+                int slot = (int) Math.floorMod(currentDay + i, (long) DAYS);
+                last30d = last30d.subtract(dayBuckets[slot]);
+                dayBuckets[slot] = BigDecimal.ZERO;
+            }
+            currentDay = day;
+        }
+    }
+}
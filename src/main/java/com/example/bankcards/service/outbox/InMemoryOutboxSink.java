@@ -0,0 +1,19 @@
+package com.example.bankcards.service.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final ConcurrentLinkedQueue<OutboxMessage> published = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        published.addAll(messages);
+    }
+
+    public List<OutboxMessage> getPublished() {
+        return new ArrayList<>(published);
+    }
+}
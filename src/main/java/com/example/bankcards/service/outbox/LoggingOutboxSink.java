@@ -0,0 +1,23 @@
+package com.example.bankcards.service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Получатель по умолчанию, пока не подключена внешняя система: пишет в DEBUG только тип события
+ * и id агрегата, без payload с суммами, и ничего не накапливает.
+ */
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        if (log.isDebugEnabled()) {
+            for (OutboxMessage message : messages) {
+                log.debug("Outbox message {}: {} {} {}", message.id(), message.eventType(),
+                        message.aggregateType(), message.aggregateId());
+            }
+        }
+    }
+}
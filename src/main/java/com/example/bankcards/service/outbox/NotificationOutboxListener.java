@@ -0,0 +1,42 @@
+package com.example.bankcards.service.outbox;
+
+import com.example.bankcards.config.OutboxProperties;
+import com.example.bankcards.event.CardEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+
+/**
+ * Пишет уведомления для внешних систем в таблицу outbox в той же транзакции,
+ * что и изменение карты. Отправку выполняет {@link OutboxRelay}.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxListener {
+
+    private static final String INSERT =
+            "INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final OutboxProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCardEvent(CardEvent event) throws JsonProcessingException {
+        if (!properties.isEnabled() || !properties.getEventTypes().contains(event.type())) {
+            return;
+        }
+        jdbcTemplate.update(INSERT,
+                "CARD",
+                event.cardId(),
+                event.type().name(),
+                objectMapper.writeValueAsString(event),
+                Timestamp.from(event.occurredAt()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.service.outbox;
+
+import java.time.Instant;
+
+public record OutboxMessage(
+        Long id,
+        String aggregateType,
+        Long aggregateId,
+        String eventType,
+        String payload,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,70 @@
+package com.example.bankcards.service.outbox;
+
+import com.example.bankcards.config.OutboxProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Забирает пачки из outbox под FOR UPDATE SKIP LOCKED, публикует их в {@link OutboxSink}
+ * и удаляет в той же транзакции. Несколько экземпляров (потоков или инстансов приложения)
+ * получают непересекающиеся пачки, поэтому их можно запускать параллельно.
+ * Порядок сообщений гарантирован только в пределах одной пачки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private static final String SELECT_BATCH =
+            "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at FROM outbox "
+                    + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE = "DELETE FROM outbox WHERE id = ?";
+
+    private final OutboxProperties properties;
+    private final OutboxSink sink;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:200}")
+    public void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        try {
+            while (relayBatch(batchSize) == batchSize) {
+                // продолжаем, пока есть полные пачки
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, will retry on next poll", e);
+        }
+    }
+
+    /**
+     * @return количество опубликованных сообщений
+     */
+    public int relayBatch(int batchSize) {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> new OutboxMessage(
+                    rs.getLong("id"),
+                    rs.getString("aggregate_type"),
+                    rs.getObject("aggregate_id", Long.class),
+                    rs.getString("event_type"),
+                    rs.getString("payload"),
+                    rs.getTimestamp("created_at").toInstant()), batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            sink.publish(batch);
+            jdbcTemplate.batchUpdate(DELETE, batch, batch.size(), (ps, message) -> ps.setLong(1, message.id()));
+            return batch.size();
+        });
+        return relayed != null ? relayed : 0;
+    }
+}
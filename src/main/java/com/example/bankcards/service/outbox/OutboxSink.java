@@ -0,0 +1,17 @@
+package com.example.bankcards.service.outbox;
+
+import java.util.List;
+
+/**
+ * Получатель сообщений outbox. Доставка "как минимум один раз": при сбое коммита
+ * после успешной публикации пачка будет отправлена повторно, поэтому получатели
+ * должны быть идемпотентны по {@link OutboxMessage#id()}.
+ */
+public interface OutboxSink {
+
+    /**
+     * Публикует пачку целиком; исключение означает, что пачка не доставлена
+     * и будет повторена.
+     */
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,222 @@
+package com.example.bankcards.service.scheduled;
+
+import com.example.bankcards.config.ScheduledTransferProperties;
+import com.example.bankcards.entity.ScheduledTransferStatus;
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.balance.BalanceEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Исполняет наступившие плановые переводы. Строки забираются пачками под FOR UPDATE SKIP LOCKED
+ * и закрепляются за инстансом на scheduled-transfers.lease, после чего исполняются параллельно
+ * в пуле воркеров через {@link CardService#transferBetweenCards} от имени владельца — со всеми
+ * проверками обычного перевода. Перевод и сдвиг расписания коммитятся в одной транзакции,
+ * а сдвиг условный (next_run_at не изменился, статус ACTIVE): если строку после истечения аренды
+ * уже исполнил другой инстанс или владелец её отменил, перевод откатывается. С движком балансов
+ * такой откат невозможен, поэтому вместе с balance-engine.enabled исполнитель не запускается.
+ */
+@Slf4j
+@Component
+public class ScheduledTransferRunner {
+
+    static final String SUCCESS = "SUCCESS";
+
+    private static final String CLAIM_SQL =
+            "SELECT id, user_id, from_card_id, to_card_id, amount, repeat_period, next_run_at FROM scheduled_transfers "
+                    + "WHERE status = 'ACTIVE' AND next_run_at <= ? AND (claimed_until IS NULL OR claimed_until < ?) "
+                    + "ORDER BY next_run_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final ScheduledTransferProperties properties;
+    private final CardService cardService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final ObjectProvider<BalanceEngine> balanceEngineProvider;
+    private final ExecutorService workers;
+
+    public ScheduledTransferRunner(ScheduledTransferProperties properties,
+                                   CardService cardService,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   Clock clock,
+                                   ObjectProvider<BalanceEngine> balanceEngineProvider) {
+        this.properties = properties;
+        this.cardService = cardService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.balanceEngineProvider = balanceEngineProvider;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, properties.getWorkers()), task -> {
+            Thread thread = new Thread(task, "scheduled-transfer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // движок применяет перевод в памяти шарда, и setRollbackOnly после проигранного сдвига расписания
+    // его уже не отменит — повтор истёкшей аренды списал бы деньги дважды
+    @PostConstruct
+    public void failIfBalanceEngineEnabled() {
+        if (properties.isEnabled() && balanceEngineProvider.getIfAvailable() != null) {
+            throw new IllegalStateException(
+                    "Плановые переводы несовместимы с balance-engine.enabled: отключите scheduled-transfers.enabled");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(initialDelayString = "${scheduled-transfers.poll-interval-ms:1000}", fixedDelayString = "${scheduled-transfers.poll-interval-ms:1000}")
+    public void poll() {
+        if (properties.isEnabled()) {
+            runDue();
+        }
+    }
+
+    /** @return число исполненных за этот запуск строк (успешно или с зафиксированной ошибкой) */
+    public int runDue() {
+        int total = 0;
+        while (true) {
+            List<DueTransfer> batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null || batch.isEmpty()) {
+                return total;
+            }
+            List<Future<Boolean>> results = new ArrayList<>(batch.size());
+            for (DueTransfer due : batch) {
+                results.add(workers.submit(() -> execute(due)));
+            }
+            for (Future<Boolean> result : results) {
+                if (await(result)) {
+                    total++;
+                }
+            }
+            if (batch.size() < properties.getBatchSize()) {
+                return total;
+            }
+        }
+    }
+
+    private List<DueTransfer> claimBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Timestamp nowTs = Timestamp.valueOf(now);
+        List<DueTransfer> due = jdbcTemplate.query(CLAIM_SQL,
+                (rs, i) -> new DueTransfer(rs.getLong("id"), rs.getLong("user_id"), null,
+                        rs.getLong("from_card_id"), rs.getLong("to_card_id"), rs.getBigDecimal("amount"),
+                        rs.getString("repeat_period"), rs.getTimestamp("next_run_at").toLocalDateTime()),
+                nowTs, nowTs, properties.getBatchSize());
+        if (due.isEmpty()) {
+            return due;
+        }
+        Timestamp claimedUntil = Timestamp.valueOf(now.plus(properties.getLease()));
+        jdbcTemplate.batchUpdate("UPDATE scheduled_transfers SET claimed_until = ? WHERE id = ?",
+                due.stream().map(d -> new Object[]{claimedUntil, d.id()}).toList());
+
+        Map<Long, String> usernames = new HashMap<>();
+        List<Long> userIds = due.stream().map(DueTransfer::userId).distinct().toList();
+        jdbcTemplate.query("SELECT id, username FROM users WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(userIds.size(), "?")) + ")",
+                (RowCallbackHandler) rs -> usernames.put(rs.getLong("id"), rs.getString("username")),
+                userIds.toArray());
+        return due.stream().map(d -> d.withUsername(usernames.get(d.userId()))).toList();
+    }
+
+    private boolean execute(DueTransfer due) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        SecurityContext previous = SecurityContextHolder.getContext();
+        try {
+            Authentication owner = new UsernamePasswordAuthenticationToken(due.username(), null, List.of());
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(owner);
+            SecurityContextHolder.setContext(context);
+
+            Boolean done = transactionTemplate.execute(status -> {
+                cardService.transferBetweenCards(due.fromCardId(), due.toCardId(), due.amount(), owner);
+                if (!complete(due, now, SUCCESS)) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+            return Boolean.TRUE.equals(done);
+        } catch (ApiErrorException e) {
+            // бизнес-отказ (нет средств, карта заблокирована, лимит) фиксируется, расписание сдвигается
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> complete(due, now, e.getErrorStatus().name())));
+        } catch (RuntimeException e) {
+            // инфраструктурная ошибка: строку повторит этот или другой инстанс после истечения аренды
+            log.warn("Scheduled transfer {} failed, will retry after lease: {}", due.id(), e.getMessage());
+            return false;
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    private boolean complete(DueTransfer due, LocalDateTime now, String outcome) {
+        LocalDateTime nextRunAt = due.nextRunAt();
+        ScheduledTransferStatus status;
+        if (due.repeatPeriod() == null) {
+            status = SUCCESS.equals(outcome) ? ScheduledTransferStatus.COMPLETED : ScheduledTransferStatus.FAILED;
+        } else {
+            status = ScheduledTransferStatus.ACTIVE;
+            Period period = Period.parse(due.repeatPeriod());
+            // пропущенные за время простоя повторы не догоняются: следующий запуск — ближайший в будущем
+            do {
+                nextRunAt = nextRunAt.plus(period);
+            } while (!nextRunAt.isAfter(now));
+        }
+        int updated = jdbcTemplate.update("UPDATE scheduled_transfers SET next_run_at = ?, status = ?, claimed_until = NULL, "
+                        + "last_run_at = ?, last_outcome = ? WHERE id = ? AND next_run_at = ? AND status = 'ACTIVE'",
+                Timestamp.valueOf(nextRunAt), status.name(), Timestamp.valueOf(now), outcome,
+                due.id(), Timestamp.valueOf(due.nextRunAt()));
+        if (updated == 0) {
+            return false;
+        }
+        jdbcTemplate.update("INSERT INTO scheduled_transfer_runs (scheduled_transfer_id, scheduled_for, executed_at, outcome) "
+                + "VALUES (?, ?, ?, ?)", due.id(), Timestamp.valueOf(due.nextRunAt()), Timestamp.valueOf(now), outcome);
+        return true;
+    }
+
+    private static boolean await(Future<Boolean> result) {
+        try {
+            return Boolean.TRUE.equals(result.get());
+        } catch (ExecutionException e) {
+            log.warn("Scheduled transfer worker failed: {}", e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record DueTransfer(Long id, Long userId, String username, Long fromCardId, Long toCardId,
+                               BigDecimal amount, String repeatPeriod, LocalDateTime nextRunAt) {
+
+        DueTransfer withUsername(String username) {
+            return new DueTransfer(id, userId, username, fromCardId, toCardId, amount, repeatPeriod, nextRunAt);
+        }
+    }
+}
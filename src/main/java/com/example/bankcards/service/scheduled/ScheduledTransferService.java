@@ -0,0 +1,103 @@
+package com.example.bankcards.service.scheduled;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.ScheduledTransferStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Плановые переводы между своими картами. Здесь проверяются только владение картами и параметры
+ * расписания — баланс, статус карт и лимиты проверяет {@link ScheduledTransferRunner} в момент исполнения.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduledTransferService {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final Clock clock;
+
+    @Transactional
+    public ScheduledTransfer create(Long fromCardId, Long toCardId, BigDecimal amount, LocalDateTime firstRunAt,
+                                    String repeat, Authentication authentication) {
+        User user = getUserByUsername(authentication.getName());
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0 || fromCardId.equals(toCardId)) {
+            throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+        }
+        ensureOwner(fromCardId, user);
+        ensureOwner(toCardId, user);
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        return scheduledTransferRepository.save(ScheduledTransfer.builder()
+                .userId(user.getId())
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(amount)
+                .repeatPeriod(parseRepeat(repeat))
+                .nextRunAt(firstRunAt != null && firstRunAt.isAfter(now) ? firstRunAt : now)
+                .status(ScheduledTransferStatus.ACTIVE)
+                .createdAt(now)
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ScheduledTransfer> getMy(Authentication authentication, Pageable pageable) {
+        User user = getUserByUsername(authentication.getName());
+        return scheduledTransferRepository.findByUserIdOrderByIdDesc(user.getId(), pageable);
+    }
+
+    /** Отменяет ещё активный перевод. Уже начатое исполнение откатится на условном сдвиге расписания. */
+    @Transactional
+    public void cancel(Long id, Authentication authentication) {
+        User user = getUserByUsername(authentication.getName());
+        if (scheduledTransferRepository.cancel(id, user.getId()) == 0) {
+            throw new ApiErrorException(ErrorStatus.FORBIDDEN_OPERATION);
+        }
+    }
+
+    private static String parseRepeat(String repeat) {
+        if (repeat == null || repeat.isBlank()) {
+            return null;
+        }
+        try {
+            Period period = Period.parse(repeat.trim());
+            if (period.isNegative() || period.isZero()) {
+                throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+            }
+            return period.toString();
+        } catch (DateTimeParseException e) {
+            throw new ApiErrorException(ErrorStatus.VALIDATION_ERROR);
+        }
+    }
+
+    private void ensureOwner(Long cardId, User user) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ApiErrorException(ErrorStatus.CARD_NOT_FOUND));
+        if (card.getUser() == null || !card.getUser().getId().equals(user.getId())) {
+            throw new ApiErrorException(ErrorStatus.FORBIDDEN_OPERATION);
+        }
+    }
+
+    private User getUserByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new ApiErrorException(ErrorStatus.USER_NOT_FOUND));
+    }
+}
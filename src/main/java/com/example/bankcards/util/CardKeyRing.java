@@ -0,0 +1,108 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.EncryptionProperties;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Версионированные ключи AES для номеров карт. Шифротекст с версией имеет вид {@code <keyId>:<base64>};
+ * значения без префикса относятся к прежнему единственному ключу {@code encryption.aes-key}.
+ */
+public class CardKeyRing {
+
+    private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final char SEPARATOR = ':';
+
+    private final SecretKeySpec legacyKey;
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private final String activeKeyId;
+
+    public CardKeyRing(EncryptionProperties properties) {
+        legacyKey = properties.getAesKey() == null ? null : new SecretKeySpec(properties.getAesKey().getBytes(), "AES");
+        properties.getKeys().forEach((id, key) -> {
+            if (id.indexOf(SEPARATOR) >= 0) {
+                throw new IllegalStateException("Недопустимый id ключа шифрования: " + id);
+            }
+            keys.put(id, new SecretKeySpec(key.getBytes(), "AES"));
+        });
+        activeKeyId = properties.getActiveKeyId() == null || properties.getActiveKeyId().isBlank()
+                ? null : properties.getActiveKeyId();
+        if (activeKeyId != null && !keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("Активный ключ шифрования не найден в encryption.keys: " + activeKeyId);
+        }
+        if (activeKeyId == null && legacyKey == null) {
+            throw new IllegalStateException("Не задан ключ шифрования номеров карт");
+        }
+    }
+
+    public String activeKeyId() {
+        return activeKeyId;
+    }
+
+    public String encrypt(String plain) {
+        return activeKeyId == null ? encrypt(legacyKey, plain) : activeKeyId + SEPARATOR + encrypt(keys.get(activeKeyId), plain);
+    }
+
+    public String decrypt(String stored) {
+        int separator = stored.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return decrypt(required(legacyKey, "legacy"), stored);
+        }
+        String keyId = stored.substring(0, separator);
+        return decrypt(required(keys.get(keyId), keyId), stored.substring(separator + 1));
+    }
+
+    /** Зашифрован ли хранимый номер активным ключом. */
+    public boolean isCurrent(String stored) {
+        int separator = stored.indexOf(SEPARATOR);
+        return activeKeyId == null
+                ? separator < 0
+                : separator == activeKeyId.length() && stored.startsWith(activeKeyId);
+    }
+
+    /**
+     * Шифротексты номера под всеми известными ключами. AES/ECB детерминирован, поэтому так можно
+     * искать карту по номеру, пока часть таблицы ещё не перешифрована.
+     */
+    public List<String> encryptWithAllKeys(String plain) {
+        List<String> result = new ArrayList<>(keys.size() + 1);
+        if (legacyKey != null) {
+            result.add(encrypt(legacyKey, plain));
+        }
+        keys.forEach((id, key) -> result.add(id + SEPARATOR + encrypt(key, plain)));
+        return result;
+    }
+
+    private static SecretKeySpec required(SecretKeySpec key, String keyId) {
+        if (key == null) {
+            throw new IllegalStateException("Неизвестный ключ шифрования: " + keyId);
+        }
+        return key;
+    }
+
+    private static String encrypt(SecretKeySpec key, String plain) {
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key);
+            return Base64.getEncoder().encodeToString(cipher.doFinal(plain.getBytes()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Ошибка шифрования", e);
+        }
+    }
+
+    private static String decrypt(SecretKeySpec key, String encoded) {
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key);
+            return new String(cipher.doFinal(Base64.getDecoder().decode(encoded)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Ошибка дешифрования", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Разрешает запись в лог не чаще раза в интервал и считает пропущенные между записями события,
+ * чтобы поток однотипных сообщений не забивал лог, но и не пропадал бесследно.
+ */
+public final class SampledLog {
+
+    private final AtomicLong nextLogAt = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * @return число пропущенных с прошлой записи событий, если сейчас можно писать в лог, иначе -1
+     */
+    public long tryAcquire(long now, long intervalNanos) {
+        long next = nextLogAt.get();
+        if ((next == Long.MIN_VALUE || now - next >= 0) && nextLogAt.compareAndSet(next, now + intervalNanos)) {
+            return suppressed.sumThenReset();
+        }
+        suppressed.increment();
+        return -1;
+    }
+}
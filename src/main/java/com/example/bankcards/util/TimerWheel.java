@@ -0,0 +1,72 @@
+package com.example.bankcards.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Хешированное колесо таймеров: по ячейке на тик, у задач дальше одного оборота хранится число
+ * оставшихся оборотов. Постановка — O(1), продвижение на тик — O(задач в текущей ячейке).
+ * Задача срабатывает не раньше заданной задержки и не позже чем через тик после неё.
+ */
+public class TimerWheel<T> {
+
+    private final ArrayDeque<Timer<T>>[] slots;
+    private final long tickMillis;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int slotCount, long tickMillis) {
+        this.slots = new ArrayDeque[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.tickMillis = tickMillis;
+    }
+
+    public synchronized void schedule(T item, long delayMillis) {
+        // +1: текущий тик уже частично прошёл
+        long ticks = Math.max(0, (delayMillis + tickMillis - 1) / tickMillis) + 1;
+        int slot = (int) ((currentTick + ticks) % slots.length);
+        slots[slot].add(new Timer<>(item, (ticks - 1) / slots.length));
+        size++;
+    }
+
+    /** Продвигает колесо на один тик и возвращает задачи, срок которых наступил. */
+    public synchronized List<T> advance() {
+        currentTick++;
+        List<T> due = new ArrayList<>();
+        Iterator<Timer<T>> it = slots[(int) (currentTick % slots.length)].iterator();
+        while (it.hasNext()) {
+            Timer<T> timer = it.next();
+            if (timer.rounds == 0) {
+                due.add(timer.item);
+                it.remove();
+                size--;
+            } else {
+                timer.rounds--;
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private static final class Timer<T> {
+        private final T item;
+        private long rounds;
+
+        private Timer(T item, long rounds) {
+            this.item = item;
+            this.rounds = rounds;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.response.CardResponseDto;
+import com.example.bankcards.entity.CardStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFormatsConfigTest {
+
+    @Test
+    void cbor_usesSlimPageEnvelope_andIsSmallerThanJson() throws Exception {
+        Page<CardResponseDto> page = page(50);
+        ObjectMapper cbor = BinaryFormatsConfig.binaryMapper(new Jackson2ObjectMapperBuilder(), new CBORFactory());
+
+        byte[] encoded = cbor.writeValueAsBytes(page);
+        JsonNode decoded = cbor.readTree(encoded);
+
+        assertEquals(50, decoded.get("content").size());
+        assertEquals("**** **** **** 0007", decoded.get("content").get(7).get("maskedNumber").asText());
+        assertEquals(1000, decoded.get("totalElements").asLong());
+        assertNull(decoded.get("pageable"));
+
+        byte[] json = new Jackson2ObjectMapperBuilder().build().writeValueAsBytes(page);
+        assertTrue(encoded.length < json.length, encoded.length + " >= " + json.length);
+    }
+
+    @Test
+    void smile_roundTripsCardDto() throws Exception {
+        ObjectMapper smile = BinaryFormatsConfig.binaryMapper(new Jackson2ObjectMapperBuilder(), new SmileFactory());
+        CardResponseDto dto = page(1).getContent().get(0);
+
+        CardResponseDto decoded = smile.readValue(smile.writeValueAsBytes(dto), CardResponseDto.class);
+
+        assertEquals(dto.getMaskedNumber(), decoded.getMaskedNumber());
+        assertEquals(dto.getExpiryDate(), decoded.getExpiryDate());
+        assertEquals(0, dto.getBalance().compareTo(decoded.getBalance()));
+    }
+
+    private static Page<CardResponseDto> page(int size) {
+        List<CardResponseDto> content = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            content.add(new CardResponseDto((long) i, String.format("**** **** **** %04d", i),
+                    LocalDate.of(2030, 1, 1), CardStatus.ACTIVE, BigDecimal.valueOf(i * 100L, 2)));
+        }
+        return new PageImpl<>(content, PageRequest.of(0, size), 1000);
+    }
+}
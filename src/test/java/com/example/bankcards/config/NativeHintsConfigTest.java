@@ -0,0 +1,47 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.repository.CardStatusSummary;
+import com.example.bankcards.util.CardNumberEncryptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.aop.SpringProxy;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTest() {
+        new NativeHintsConfig.BankRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void converterAndEntities_areReflective() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(CardNumberEncryptor.class.getConstructor(EncryptionProperties.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Card.class, "getNumber").test(hints));
+    }
+
+    @Test
+    void jjwtRuntimeTypes_areReflective() {
+        for (String type : NativeHintsConfig.JJWT_RUNTIME_TYPES) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type)).test(hints), type);
+        }
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+
+    @Test
+    void resourcesAndProjectionProxies_areRegistered() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/changelog-1.0.yaml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("hibernate-cache.conf").test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies()
+                .forInterfaces(CardStatusSummary.class, TargetAware.class, SpringProxy.class, DecoratingProxy.class)
+                .test(hints));
+    }
+}
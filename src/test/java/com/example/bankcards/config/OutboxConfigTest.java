@@ -0,0 +1,23 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.service.outbox.FileOutboxSink;
+import com.example.bankcards.service.outbox.LoggingOutboxSink;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class OutboxConfigTest {
+
+    @Test
+    void defaultSink_doesNotWriteFiles() {
+        assertInstanceOf(LoggingOutboxSink.class, new OutboxConfig().outboxSink(new OutboxProperties()));
+    }
+
+    @Test
+    void fileSink_isExplicitOptIn() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setSink(OutboxProperties.Sink.FILE);
+
+        assertInstanceOf(FileOutboxSink.class, new OutboxConfig().outboxSink(properties));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.response.AdminStatsResponseDto;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.service.AdminStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+        controllers = AdminController.class,
+        excludeFilters = {
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtAuthenticationFilter.class)
+        }
+)
+@AutoConfigureMockMvc(addFilters = false)
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AdminStatsService adminStatsService;
+
+    @Test
+    void getStats_Success() throws Exception {
+        when(adminStatsService.getStats()).thenReturn(new AdminStatsResponseDto(
+                3, Map.of(CardStatus.ACTIVE, 2L, CardStatus.BLOCKED, 1L), new BigDecimal("250.00"), 1,
+                Map.of(Role.ROLE_USER, 5L), Instant.EPOCH));
+
+        mockMvc.perform(get("/api/v1/admin/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCards").value(3))
+                .andExpect(jsonPath("$.cardsByStatus.BLOCKED").value(1))
+                .andExpect(jsonPath("$.usersByRole.ROLE_USER").value(5));
+    }
+}
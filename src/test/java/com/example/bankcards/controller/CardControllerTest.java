@@ -3,10 +3,12 @@ package com.example.bankcards.controller;
 import com.example.bankcards.dto.request.CardCreateRequestDto;
 import com.example.bankcards.dto.request.TransferRequestDto;
 import com.example.bankcards.dto.response.CardResponseDto;
+import com.example.bankcards.dto.response.CardSummaryResponseDto;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.exception.ApiErrorException;
 import com.example.bankcards.exception.constant.ErrorStatus;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.CardSummaryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,6 +48,9 @@ class CardControllerTest {
     @MockBean
     private CardService cardService;
 
+    @MockBean
+    private CardSummaryService cardSummaryService;
+
     @Test
     void createCard_Success() throws Exception {
         CardResponseDto response = new CardResponseDto(
@@ -88,6 +93,46 @@ class CardControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getBlockRequests_returnsNextCursorWhenPageIsFull() throws Exception {
+        com.example.bankcards.entity.Card first = new com.example.bankcards.entity.Card();
+        first.setId(5L);
+        first.setStatus(CardStatus.REQUESTED_BLOCK);
+        com.example.bankcards.entity.Card second = new com.example.bankcards.entity.Card();
+        second.setId(9L);
+        second.setStatus(CardStatus.REQUESTED_BLOCK);
+        when(cardService.getBlockRequests(3L, 2)).thenReturn(List.of(first, second));
+
+        mockMvc.perform(get("/api/v1/cards/block-requests?afterId=3&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(9));
+    }
+
+    @Test
+    void approveBlockRequests_reportsSkippedIds() throws Exception {
+        when(cardService.approveBlockRequests(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+
+        mockMvc.perform(post("/api/v1/cards/block-requests/approve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardIds\":[1,2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.approvedIds.length()").value(2))
+                .andExpect(jsonPath("$.skippedIds[0]").value(2));
+    }
+
+    @Test
+    void getMySummary_Success() throws Exception {
+        when(cardSummaryService.getMySummary(any())).thenReturn(new CardSummaryResponseDto(
+                2, java.util.Map.of(CardStatus.ACTIVE, 2L), BigDecimal.valueOf(150), LocalDate.of(2030, 1, 1)));
+
+        mockMvc.perform(get("/api/v1/cards/my/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCards").value(2))
+                .andExpect(jsonPath("$.cardsByStatus.ACTIVE").value(2))
+                .andExpect(jsonPath("$.totalBalance").value(150));
+    }
+
     @Test
     void activateCard_Failure_Expired() throws Exception {
         when(cardService.activateCard(1L))
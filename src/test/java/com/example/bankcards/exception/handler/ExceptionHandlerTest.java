@@ -0,0 +1,39 @@
+package com.example.bankcards.exception.handler;
+
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.exception.dto.ErrorResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExceptionHandlerTest {
+
+    private final ExceptionHandler handler = new ExceptionHandler(Duration.ofSeconds(10));
+
+    @Test
+    void clientErrors_areStackless() {
+        assertEquals(0, new ApiErrorException(ErrorStatus.CARD_NOT_FOUND).getStackTrace().length);
+        assertEquals(0, new ApiErrorException(ErrorStatus.FORBIDDEN_OPERATION).getStackTrace().length);
+    }
+
+    @Test
+    void serverErrors_keepStackTrace() {
+        assertTrue(new ApiErrorException(ErrorStatus.INTERNAL_ERROR).getStackTrace().length > 0);
+    }
+
+    @Test
+    void handleApiException_reusesPrebuiltResponse() {
+        ResponseEntity<ErrorResponseDto> first = handler.handleApiException(new ApiErrorException(ErrorStatus.CARD_NOT_FOUND));
+        ResponseEntity<ErrorResponseDto> second = handler.handleApiException(new ApiErrorException(ErrorStatus.CARD_NOT_FOUND));
+
+        assertSame(first, second);
+        assertEquals(HttpStatus.NOT_FOUND, first.getStatusCode());
+        assertEquals("Card not found", first.getBody().errorMessage());
+        assertSame(ErrorResponseDto.of(ErrorStatus.CARD_NOT_FOUND), first.getBody());
+    }
+}
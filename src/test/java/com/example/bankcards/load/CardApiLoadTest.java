@@ -0,0 +1,233 @@
+package com.example.bankcards.load;
+
+import com.example.bankcards.util.CardNumberEncryptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочный сценарий: N пользователей по M карт, логин каждого пользователя,
+ * затем смесь /cards/my/paged, /cards/{id}/balance и конкурентных /cards/transfer.
+ * В конце проверяется, что суммарный баланс не изменился.
+ */
+@Slf4j
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "rate-limit.enabled=false"
+})
+class CardApiLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int CARDS_PER_USER = Integer.getInteger("load.cards-per-user", 4);
+    private static final int THREADS = Integer.getInteger("load.threads", 32);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000);
+    private static final long FIRST_USER_ID = 10_000;
+    private static final long FIRST_CARD_ID = 100_000;
+    private static final String PASSWORD = "load-test-password";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void balanceEngine(DynamicPropertyRegistry registry) {
+        registry.add("balance-engine.enabled", () -> System.getProperty("load.balance-engine", "false"));
+        // плановые переводы не запускаются вместе с движком балансов
+        registry.add("scheduled-transfers.enabled",
+                () -> String.valueOf(!Boolean.parseBoolean(System.getProperty("load.balance-engine", "false"))));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardNumberEncryptor cardNumberEncryptor;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(THREADS))
+            .build();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    @Test
+    void mixedCardWorkload() throws Exception {
+        seed();
+        BigDecimal totalBefore = totalBalance();
+
+        String[] tokens = loginAll();
+
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    runOneOperation(tokens);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        workers.shutdown();
+
+        awaitLedgerApplied();
+        BigDecimal totalAfter = totalBalance();
+
+        String report = String.format(Locale.ROOT,
+                "users=%d cardsPerUser=%d threads=%d duration=%ds balanceEngine=%s%n%s" +
+                        "balance before=%s after=%s%n",
+                USERS, CARDS_PER_USER, THREADS, DURATION_SECONDS, System.getProperty("load.balance-engine", "false"),
+                recorder.report(elapsed), totalBefore, totalAfter);
+        writeReport("card-api-load-report.txt", report);
+
+        assertEquals(0, totalBefore.compareTo(totalAfter), "Суммарный баланс карт должен сохраняться");
+        assertEquals(0, recorder.errorCount("transfer"), "Переводы не должны завершаться ошибками 5xx");
+    }
+
+    private void seed() {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> roles = new ArrayList<>();
+        List<Object[]> cards = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            long userId = FIRST_USER_ID + u;
+            users.add(new Object[]{userId, "load-user-" + u, passwordHash});
+            roles.add(new Object[]{userId, "ROLE_USER"});
+            for (int c = 0; c < CARDS_PER_USER; c++) {
+                long cardId = FIRST_CARD_ID + (long) u * CARDS_PER_USER + c;
+                String number = String.format("5536%012d", cardId);
+                cards.add(new Object[]{cardId, cardNumberEncryptor.convertToDatabaseColumn(number),
+                        LocalDate.now().plusYears(3), "ACTIVE", INITIAL_BALANCE, userId});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, username, password) values (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into user_roles (user_id, role) values (?, ?)", roles);
+        jdbcTemplate.batchUpdate("insert into cards (id, number_encrypted, expiry_date, status, balance, user_id) " +
+                "values (?, ?, ?, ?, ?, ?)", cards);
+        jdbcTemplate.execute("analyze");
+    }
+
+    private String[] loginAll() throws Exception {
+        String[] tokens = new String[USERS];
+        for (int u = 0; u < USERS; u++) {
+            HttpResponse<String> response = timed("login", HttpRequest.newBuilder(uri("/api/v1/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"load-user-" + u + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build());
+            assertEquals(200, response.statusCode());
+            tokens[u] = objectMapper.readTree(response.body()).get("token").asText();
+        }
+        return tokens;
+    }
+
+    private void runOneOperation(String[] tokens) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int user = random.nextInt(USERS);
+        String token = tokens[user];
+        long firstCard = FIRST_CARD_ID + (long) user * CARDS_PER_USER;
+        int dice = random.nextInt(10);
+
+        if (dice < 4) {
+            timed("cards.my.paged", authorized(uri("/api/v1/cards/my/paged?page=0&size=20"), token).GET().build());
+        } else if (dice < 8) {
+            long cardId = firstCard + random.nextInt(CARDS_PER_USER);
+            timed("cards.balance", authorized(uri("/api/v1/cards/" + cardId + "/balance"), token).GET().build());
+        } else {
+            long from = firstCard + random.nextInt(CARDS_PER_USER);
+            long to = firstCard + (from - firstCard + 1 + random.nextInt(CARDS_PER_USER - 1)) % CARDS_PER_USER;
+            String body = "{\"fromCardId\":" + from + ",\"toCardId\":" + to + ",\"amount\":" + (1 + random.nextInt(50)) + "}";
+            timed("transfer", authorized(uri("/api/v1/cards/transfer"), token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build());
+        }
+    }
+
+    private HttpResponse<String> timed(String operation, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        recorder.record(operation, System.nanoTime() - start);
+        if (response.statusCode() >= 500) {
+            recorder.error(operation);
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder authorized(URI uri, String token) {
+        return HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token).timeout(Duration.ofSeconds(30));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private BigDecimal totalBalance() {
+        return jdbcTemplate.queryForObject("select coalesce(sum(balance), 0) from cards where id >= ?",
+                BigDecimal.class, FIRST_CARD_ID);
+    }
+
+    private void awaitLedgerApplied() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Integer unapplied = jdbcTemplate.queryForObject(
+                    "select count(*) from balance_ledger where applied = false", Integer.class);
+            if (unapplied == null || unapplied == 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Журнал балансов не применился к cards за 30 секунд");
+    }
+
+    private static void writeReport(String fileName, String report) throws IOException {
+        log.info("\n{}", report);
+        Path dir = Path.of("target", "load-test");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(fileName), report);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.bankcards.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+class LatencyRecorder {
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> samples = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> bytes = new ConcurrentHashMap<>();
+
+    void record(String operation, long nanos) {
+        samples.computeIfAbsent(operation, k -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+
+    void recordBytes(String operation, long count) {
+        bytes.computeIfAbsent(operation, k -> new LongAdder()).add(count);
+    }
+
+    void error(String operation) {
+        errors.computeIfAbsent(operation, k -> new LongAdder()).increment();
+    }
+
+    long errorCount(String operation) {
+        LongAdder adder = errors.get(operation);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    String report(long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-24s %10s %10s %10s %10s %12s %8s %14s%n",
+                "operation", "count", "p50 ms", "p99 ms", "max ms", "ops/s", "errors", "avg bytes"));
+        double seconds = elapsedNanos / 1e9;
+        samples.keySet().stream().sorted().forEach(operation -> {
+            List<Long> values = new ArrayList<>(samples.get(operation));
+            Collections.sort(values);
+            long count = values.size();
+            LongAdder byteCount = bytes.get(operation);
+            sb.append(String.format(Locale.ROOT, "%-24s %10d %10.2f %10.2f %10.2f %12.1f %8d %14s%n",
+                    operation,
+                    count,
+                    millis(percentile(values, 0.50)),
+                    millis(percentile(values, 0.99)),
+                    millis(values.isEmpty() ? 0 : values.get(values.size() - 1)),
+                    count / seconds,
+                    errorCount(operation),
+                    byteCount == null || count == 0 ? "-" : String.valueOf(byteCount.sum() / count)));
+        });
+        return sb.toString();
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
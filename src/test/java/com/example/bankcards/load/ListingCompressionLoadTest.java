@@ -0,0 +1,182 @@
+package com.example.bankcards.load;
+
+import com.example.bankcards.util.CardNumberEncryptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочный сценарий для /cards/all?size=500: один и тот же листинг запрашивается
+ * по HTTP/1.1 без сжатия, по HTTP/1.1 с gzip и по HTTP/2 (h2c) с gzip.
+ * В отчёте — задержки и средний размер тела ответа на проводе.
+ */
+@Slf4j
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "rate-limit.enabled=false"
+})
+class ListingCompressionLoadTest {
+
+    private static final int CARDS = Integer.getInteger("load.cards", 2_000);
+    private static final int PAGE_SIZE = 500;
+    private static final int THREADS = Integer.getInteger("load.threads", 16);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 15);
+    private static final long ADMIN_ID = 20_000;
+    private static final long FIRST_CARD_ID = 200_000;
+    private static final String ADMIN_USERNAME = "load-admin";
+    private static final String PASSWORD = "load-test-password";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardNumberEncryptor cardNumberEncryptor;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void listingOverHttp1AndH2c() throws Exception {
+        seed();
+        String token = login();
+
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "cards=%d pageSize=%d threads=%d duration=%ds per variant%n", CARDS, PAGE_SIZE, THREADS, DURATION_SECONDS));
+        report.append(run("http1.1.identity", HttpClient.Version.HTTP_1_1, false, token));
+        report.append(run("http1.1.gzip", HttpClient.Version.HTTP_1_1, true, token));
+        report.append(run("h2c.gzip", HttpClient.Version.HTTP_2, true, token));
+        writeReport("listing-compression-report.txt", report.toString());
+    }
+
+    private String run(String variant, HttpClient.Version version, boolean gzip, String token) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        HttpClient client = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(workers)
+                .build();
+
+        HttpResponse<byte[]> probe = send(client, gzip, token);
+        assertEquals(200, probe.statusCode());
+        assertEquals(version, probe.version(), "Сервер должен ответить по " + version);
+        assertEquals(gzip ? "gzip" : null, probe.headers().firstValue("Content-Encoding").orElse(null));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    HttpResponse<byte[]> response = send(client, gzip, token);
+                    recorder.record(variant, System.nanoTime() - start);
+                    recorder.recordBytes(variant, response.body().length);
+                    if (response.statusCode() != 200) {
+                        recorder.error(variant);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        workers.shutdown();
+
+        assertEquals(0, recorder.errorCount(variant), "Листинг не должен завершаться ошибками: " + variant);
+        return recorder.report(elapsed);
+    }
+
+    private HttpResponse<byte[]> send(HttpClient client, boolean gzip, String token) throws IOException, InterruptedException {
+        int page = ThreadLocalRandom.current().nextInt(Math.max(1, CARDS / PAGE_SIZE));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/api/v1/cards/all?page=" + page + "&size=" + PAGE_SIZE))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        // HttpClient не распаковывает тело сам, поэтому длина массива — размер ответа на проводе
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private void seed() {
+        jdbcTemplate.update("insert into users (id, username, password) values (?, ?, ?)",
+                ADMIN_ID, ADMIN_USERNAME, passwordEncoder.encode(PASSWORD));
+        jdbcTemplate.update("insert into user_roles (user_id, role) values (?, 'ROLE_ADMIN')", ADMIN_ID);
+        jdbcTemplate.update("insert into user_roles (user_id, role) values (?, 'ROLE_USER')", ADMIN_ID);
+
+        List<Object[]> cards = new ArrayList<>();
+        for (int c = 0; c < CARDS; c++) {
+            long cardId = FIRST_CARD_ID + c;
+            String number = String.format("4276%012d", cardId);
+            cards.add(new Object[]{cardId, cardNumberEncryptor.convertToDatabaseColumn(number),
+                    LocalDate.now().plusYears(3), "ACTIVE", BigDecimal.valueOf(cardId % 100_000, 2), ADMIN_ID});
+        }
+        jdbcTemplate.batchUpdate("insert into cards (id, number_encrypted, expiry_date, status, balance, user_id) " +
+                "values (?, ?, ?, ?, ?, ?)", cards);
+        jdbcTemplate.execute("analyze");
+    }
+
+    private String login() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(uri("/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + ADMIN_USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void writeReport(String fileName, String report) throws IOException {
+        log.info("\n{}", report);
+        Path dir = Path.of("target", "load-test");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(fileName), report);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.bankcards.nativeimage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke-тесты native-бинарника (профиль native) на PostgreSQL в Testcontainers: старт с миграциями,
+ * JWT, шифрование номера карты конвертером JPA, кэш второго уровня, бинарный формат ответа и путь ошибок.
+ */
+@Slf4j
+@Tag("native")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NativeImageSmokeTest {
+
+    private static final Path BINARY = Path.of(System.getProperty("native.binary", "target/bank-rest"));
+    private static final long MAX_STARTUP_MS = Long.getLong("native.max-startup-ms", 3_000);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private Process process;
+    private int port;
+
+    @BeforeAll
+    void startBinary() throws Exception {
+        Assumptions.assumeTrue(Files.isExecutable(BINARY), "Нет native-бинарника " + BINARY + ", сначала mvn -Pnative package");
+        port = freePort();
+        Path outbox = Files.createTempDirectory("native-outbox");
+
+        ProcessBuilder builder = new ProcessBuilder(BINARY.toAbsolutePath().toString())
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "native-smoke.log").toFile());
+        builder.environment().putAll(Map.of(
+                "SERVER_PORT", String.valueOf(port),
+                "SPRING_DATASOURCE_URL", postgres.getJdbcUrl(),
+                "SPRING_DATASOURCE_USERNAME", postgres.getUsername(),
+                "SPRING_DATASOURCE_PASSWORD", postgres.getPassword(),
+                "SPRING_JPA_SHOWSQL", "false",
+                "OUTBOX_FILEPATH", outbox.resolve("notifications.jsonl").toString()));
+
+        long started = System.nanoTime();
+        process = builder.start();
+        awaitReady();
+        long startupMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Native image ready in {} ms", startupMs);
+        assertTrue(startupMs < MAX_STARTUP_MS, "Старт native-бинарника занял " + startupMs + " мс");
+    }
+
+    @AfterAll
+    void stopBinary() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    @Test
+    void adminCreatesCard_andListsItMasked() throws Exception {
+        String token = login("admin1", "admin123");
+        String number = "4276" + (100_000_000_000L + System.nanoTime() % 899_999_999_999L);
+
+        HttpResponse<String> created = send(HttpRequest.newBuilder(uri("/api/v1/cards"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "userId", 101, "number", number, "expiryDate", LocalDate.now().plusYears(2).toString())))));
+        assertEquals(200, created.statusCode(), created.body());
+        assertEquals("**** **** **** " + number.substring(12), objectMapper.readTree(created.body()).get("maskedNumber").asText());
+
+        HttpResponse<String> all = send(authorized("/api/v1/cards/all?size=50", token).GET());
+        assertEquals(200, all.statusCode());
+        assertTrue(all.body().contains(number.substring(12)));
+    }
+
+    @Test
+    void userEndpoints_andErrorPath() throws Exception {
+        String token = login("user1", "user123");
+
+        assertEquals(200, send(authorized("/api/v1/cards/my/summary", token).GET()).statusCode());
+
+        HttpResponse<String> missing = send(authorized("/api/v1/cards/987654321/balance", token).GET());
+        assertTrue(missing.statusCode() == 404 || missing.statusCode() == 403, missing.body());
+        assertNotNull(objectMapper.readTree(missing.body()).get("errorMessage"));
+    }
+
+    @Test
+    void cborResponse_isNegotiated() throws Exception {
+        String token = login("admin1", "admin123");
+
+        HttpResponse<byte[]> response = httpClient.send(authorized("/api/v1/cards/all?size=5", token)
+                .header("Accept", "application/cbor").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/cbor", response.headers().firstValue("Content-Type").orElse(""));
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(response.body());
+        assertTrue(page.has("content"));
+        assertTrue(page.has("totalElements"));
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}")));
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            assertTrue(process.isAlive(), "native-бинарник завершился, см. target/native-smoke.log");
+            try {
+                httpClient.send(HttpRequest.newBuilder(uri("/api/v1/auth/login")).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(20);
+            }
+        }
+        fail("native-бинарник не начал принимать запросы за 30 секунд");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(EncryptionProperties.class)
+class CardRepositorySearchTest {
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername("owner");
+        owner.setPassword("secret");
+        owner.setRoles(Set.of(Role.ROLE_USER));
+        userRepository.save(owner);
+
+        for (int i = 0; i < 5; i++) {
+            Card card = new Card();
+            card.setUser(owner);
+            card.setNumber("400000000000" + (1000 + i));
+            card.setExpiryDate(LocalDate.now().plusYears(1));
+            card.setStatus(i % 2 == 0 ? CardStatus.ACTIVE : CardStatus.BLOCKED);
+            card.setBalance(BigDecimal.valueOf(i * 100L));
+            cardRepository.save(card);
+        }
+    }
+
+    @Test
+    void findByUser_skipsArchivedCards() {
+        Card archived = cardRepository.findByUser(owner).get(0);
+        archived.setArchived(true);
+        cardRepository.saveAndFlush(archived);
+
+        assertEquals(4, cardRepository.findByUser(owner).size());
+        assertEquals(4, cardRepository.findByUser(owner, PageRequest.of(0, 10)).getTotalElements());
+        assertFalse(cardRepository.findIdsByUserId(owner.getId()).contains(archived.getId()));
+    }
+
+    @Test
+    void softDeleted_areHiddenFromQueries() {
+        Long cardId = cardRepository.findByUser(owner).get(0).getId();
+        cardRepository.softDelete(cardId, LocalDateTime.now());
+        entityManager.clear();
+
+        assertFalse(cardRepository.findById(cardId).isPresent());
+        assertEquals(4, cardRepository.findByUser(owner).size());
+        assertEquals(4, cardRepository.count());
+
+        userRepository.softDelete(owner.getId(), LocalDateTime.now());
+        cardRepository.softDeleteByUserId(owner.getId(), LocalDateTime.now());
+        entityManager.clear();
+
+        assertFalse(userRepository.existsById(owner.getId()));
+        assertFalse(userRepository.findByUsername("owner").isPresent());
+        assertEquals(0, cardRepository.count());
+    }
+
+    @Test
+    void findActiveIdByNumber_usesCiphertextIndex_andSkipsInactiveRows() {
+        Card card = cardRepository.findByNumber("4000000000001002").orElseThrow();
+        assertEquals(card.getId(), cardRepository.findActiveIdByNumber("4000000000001002").orElseThrow());
+        assertTrue(cardRepository.findActiveIdByNumber("4000000000009999").isEmpty());
+
+        cardRepository.softDelete(card.getId(), LocalDateTime.now());
+        entityManager.clear();
+
+        assertTrue(cardRepository.findActiveIdByNumber("4000000000001002").isEmpty());
+    }
+
+    @Test
+    void archivedCardNumber_staysReservedButIsNotResolvedAsActive() {
+        Card card = cardRepository.findByNumber("4000000000001002").orElseThrow();
+        card.setArchived(true);
+        cardRepository.saveAndFlush(card);
+        entityManager.clear();
+
+        assertEquals(card.getId(), cardRepository.findByNumber("4000000000001002").orElseThrow().getId());
+        assertTrue(cardRepository.findActiveIdByNumber("4000000000001002").isEmpty());
+    }
+
+    @Test
+    void last4_isStoredInPlainColumn() {
+        List<Card> found = cardRepository.findBy(CardSpecifications.last4("1003"),
+                query -> query.sortBy(Sort.by("id")).limit(10).all());
+
+        assertEquals(1, found.size());
+        assertEquals("4000000000001003", found.get(0).getNumber());
+    }
+
+    @Test
+    void ownerSearch_withResidualFilters_isKeysetPaged() {
+        Specification<Card> spec = CardSpecifications.ownerId(owner.getId())
+                .and(CardSpecifications.status(CardStatus.ACTIVE))
+                .and(CardSpecifications.balanceMin(BigDecimal.valueOf(100)));
+
+        List<Card> firstPage = cardRepository.findBy(spec, query -> query.sortBy(Sort.by("id")).limit(1).all());
+        assertEquals(1, firstPage.size());
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(firstPage.get(0).getBalance()));
+
+        Specification<Card> next = spec.and(CardSpecifications.idGreaterThan(firstPage.get(0).getId()));
+        List<Card> secondPage = cardRepository.findBy(next, query -> query.sortBy(Sort.by("id")).limit(1).all());
+        assertEquals(1, secondPage.size());
+        assertEquals(0, BigDecimal.valueOf(400).compareTo(secondPage.get(0).getBalance()));
+    }
+
+    @Test
+    void summarizeByUserId_groupsByStatus() {
+        List<CardStatusSummary> rows = cardRepository.summarizeByUserId(owner.getId());
+
+        assertEquals(2, rows.size());
+        CardStatusSummary active = rows.stream().filter(r -> r.getStatus() == CardStatus.ACTIVE).findFirst().orElseThrow();
+        assertEquals(3, active.getCardCount());
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(active.getTotalBalance()));
+        assertEquals(LocalDate.now().plusYears(1), active.getSoonestExpiry());
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.config.CardArchiveProperties;
+import com.example.bankcards.config.HoldProperties;
+import com.example.bankcards.config.ScheduledTransferProperties;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.service.CardArchiver;
+import com.example.bankcards.service.hold.HoldExpirer;
+import com.example.bankcards.service.scheduled.ScheduledTransferRunner;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Вызывает методы репозиториев и фоновых задач на заполненной базе, перехватывает SQL, который они
+ * реально отправляют (Hibernate — через {@link StatementInspector}, JdbcTemplate — через обёртку),
+ * прогоняет по нему EXPLAIN с заданными параметрами и падает, если планировщик выбирает
+ * последовательное сканирование большой таблицы.
+ */
+@Tag("integration")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        // кэш второго уровня ответил бы без запроса в базу
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class RepositoryQueryPlanTest {
+
+    // на PostgreSQL cards партиционирована: в плане фигурируют cards_active и cards_archive
+    private static final Pattern SEQ_SCAN = Pattern.compile(
+            "Seq Scan on (cards(?:_\\w+)?|users|user_roles|balance_ledger|holds|scheduled_transfers)\\b");
+
+    private static final Pattern ACTIVE_PARTITION = Pattern.compile("archived\\s*=\\s*false", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern SQL_COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BalanceLedgerRepository ledgerRepository;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @TestConfiguration
+    static class CapturingInspectorConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer capturingStatementInspector() {
+            StatementInspector inspector = sql -> {
+                List<String> recorded = RECORDED.get();
+                if (recorded != null) {
+                    recorded.add(sql);
+                }
+                return sql;
+            };
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", inspector);
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("insert into users (id, username, password) " +
+                "select g, 'plan-user-' || g, 'x' from generate_series(10000, 59999) g");
+        jdbcTemplate.execute("insert into user_roles (user_id, role) " +
+                "select id, 'ROLE_USER' from users where id >= 10000");
+        // каждая десятая карта — в архивной партиции, чтобы она не была пустой и план по ней был реалистичным
+        jdbcTemplate.execute("insert into cards (id, number_encrypted, number_last4, expiry_date, status, balance, " +
+                "user_id, archived) " +
+                "select g, 'enc-' || g, lpad((g % 10000)::text, 4, '0'), date '2026-01-01' + (g % 2000), " +
+                "case when g % 10 = 0 then 'EXPIRED' when g % 500 = 1 then 'REQUESTED_BLOCK' " +
+                "when g % 50 = 1 then 'BLOCKED' else 'ACTIVE' end, " +
+                "100, 10000 + (g % 50000), g % 10 = 0 from generate_series(1, 300000) g");
+        jdbcTemplate.execute("insert into balance_ledger (from_card_id, to_card_id, amount, created_at, applied) " +
+                "select 1 + (g % 300000), 1 + ((g * 7) % 300000), 1, now(), g % 1000 <> 0 " +
+                "from generate_series(1, 200000) g");
+        // активных холдов и плановых переводов мало, и ни один ещё не наступил — claim-запросы ничего не меняют
+        jdbcTemplate.execute("insert into holds (card_id, amount, status, created_at, expires_at) " +
+                "select 1 + (g % 300000), 1, case when g % 100 = 0 then 'ACTIVE' else 'CAPTURED' end, " +
+                "now() - interval '1 day', now() + interval '7 days' from generate_series(1, 100000) g");
+        jdbcTemplate.execute("insert into scheduled_transfers (user_id, from_card_id, to_card_id, amount, repeat_period, " +
+                "next_run_at, status, created_at) " +
+                "select 10000 + (g % 50000), 1 + (g % 300000), 2 + (g % 299999), 1, 'P1M', " +
+                "now() + interval '1 day', case when g % 100 = 0 then 'ACTIVE' else 'COMPLETED' end, now() " +
+                "from generate_series(1, 100000) g");
+        jdbcTemplate.execute("analyze");
+    }
+
+    /**
+     * Имя, фрагмент, по которому выбирается нужный перехваченный запрос, вызов и параметры для EXPLAIN.
+     * Если параметров меньше, чем плейсхолдеров, последний повторяется (списки IN по всем ключам шифрования,
+     * один параметр JPQL, подставленный несколько раз).
+     */
+    Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                hibernate("CardRepository.findById", "from cards",
+                        () -> cardRepository.findById(4242L), 4242L),
+                hibernate("CardRepository.findByIdForUpdate", "from cards",
+                        () -> cardRepository.findByIdForUpdate(4242L), 4242L),
+                hibernate("CardRepository.findByNumber", "from cards",
+                        () -> cardRepository.findByNumber("4000000000004242"), "enc-4242"),
+                hibernate("CardRepository.findActiveIdByNumber", "from cards",
+                        () -> cardRepository.findActiveIdByNumber("4000000000004242"), "enc-4242"),
+                hibernate("CardRepository.findByUser", "from cards",
+                        () -> cardRepository.findByUser(userRepository.getReferenceById(12345L)), 12345L),
+                hibernate("CardRepository.findByUser(Pageable)", "from cards",
+                        () -> cardRepository.findByUser(userRepository.getReferenceById(12345L),
+                                PageRequest.of(0, 20, Sort.by("id"))), 12345L, 20),
+                hibernate("CardRepository.findByUser(Pageable) count", "count(",
+                        () -> cardRepository.findByUser(userRepository.getReferenceById(12345L),
+                                PageRequest.of(0, 20, Sort.by("id"))), 12345L),
+                hibernate("CardRepository.findByStatusAndIdGreaterThanOrderByIdAsc", "from cards",
+                        () -> cardRepository.findByStatusAndIdGreaterThanOrderByIdAsc(CardStatus.REQUESTED_BLOCK,
+                                0L, PageRequest.of(0, 500)), "REQUESTED_BLOCK", 0L, 500),
+                hibernate("CardRepository.findIdsByUserId", "from cards",
+                        () -> cardRepository.findIdsByUserId(12345L), 12345L),
+                hibernate("CardRepository.summarizeByUserId", "from cards",
+                        () -> cardRepository.summarizeByUserId(12345L), 12345L),
+                hibernate("CardRepository.findBalanceById", "from cards",
+                        () -> cardRepository.findBalanceById(4242L), 4242L),
+                hibernate("search by owner", "from cards",
+                        () -> cardRepository.findBy(CardSpecifications.ownerId(12345L)
+                                        .and(CardSpecifications.idGreaterThan(0L)),
+                                q -> q.sortBy(Sort.by("id")).limit(50).all()), 12345L, 0L, 50),
+                hibernate("search by last4", "from cards",
+                        () -> cardRepository.findBy(CardSpecifications.last4("4242")
+                                        .and(CardSpecifications.idGreaterThan(0L)),
+                                q -> q.sortBy(Sort.by("id")).limit(50).all()), "4242", 0L, 50),
+                hibernate("search by status", "from cards",
+                        () -> cardRepository.findBy(CardSpecifications.status(CardStatus.REQUESTED_BLOCK)
+                                        .and(CardSpecifications.idGreaterThan(0L)),
+                                q -> q.sortBy(Sort.by("id")).limit(50).all()), "REQUESTED_BLOCK", 0L, 50),
+                hibernate("UserRepository.findByUsername", "from users",
+                        () -> userRepository.findByUsername("plan-user-12345"), "plan-user-12345"),
+                hibernate("UserRepository.existsByUsername", "from users",
+                        () -> userRepository.existsByUsername("plan-user-12345"), "plan-user-12345", 1),
+                hibernate("User.roles", "from user_roles",
+                        () -> userRepository.findById(12345L).map(u -> u.getRoles().size()), 12345L),
+                hibernate("BalanceLedgerRepository.sumUnappliedDelta", "from balance_ledger",
+                        () -> ledgerRepository.sumUnappliedDelta(4242L), 4242L),
+                hibernate("BalanceLedgerRepository.findByAppliedFalseOrderByIdAsc", "from balance_ledger",
+                        () -> ledgerRepository.findByAppliedFalseOrderByIdAsc(PageRequest.of(0, 500)), 500),
+                hibernate("HoldRepository.release", "update holds",
+                        () -> holdRepository.release(4242L), 4242L),
+                hibernate("ScheduledTransferRepository.findByUserIdOrderByIdDesc", "from scheduled_transfers",
+                        () -> scheduledTransferRepository.findByUserIdOrderByIdDesc(12345L, PageRequest.of(0, 20)),
+                        12345L, 20),
+                jdbc("CardArchiver batch", "from cards", template ->
+                        new CardArchiver(new CardArchiveProperties(), template, transactionTemplate, event -> {
+                        }).archive()),
+                jdbc("HoldExpirer.expireDue", "from holds", template -> {
+                    HoldProperties properties = new HoldProperties();
+                    new HoldExpirer(properties, template, transactionTemplate, event -> {
+                    }, Clock.systemUTC()).expireDue();
+                }),
+                jdbc("ScheduledTransferRunner claim", "from scheduled_transfers", template -> {
+                    ScheduledTransferRunner runner = new ScheduledTransferRunner(new ScheduledTransferProperties(),
+                            null, template, transactionTemplate, Clock.systemUTC(), null);
+                    try {
+                        runner.runDue();
+                    } finally {
+                        runner.stop();
+                    }
+                })
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryPlanAvoidsSequentialScan(String name, QuerySource source) {
+        CapturedQuery query = source.capture();
+        String planText = explain(query);
+
+        assertFalse(SEQ_SCAN.matcher(planText).find(), name + " использует seq scan:\n" + query.sql() + "\n" + planText);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void activeCardQueries_pruneArchivePartition(String name, QuerySource source) {
+        CapturedQuery query = source.capture();
+        Assumptions.assumeTrue(ACTIVE_PARTITION.matcher(query.sql()).find());
+        String planText = explain(query);
+
+        assertFalse(planText.contains("cards_archive"), name + " читает архивную партицию:\n" + planText);
+    }
+
+    private Arguments hibernate(String name, String fragment, Runnable invocation, Object... args) {
+        return Arguments.of(name, (QuerySource) () -> {
+            List<String> recorded = new ArrayList<>();
+            RECORDED.set(recorded);
+            try {
+                // вызов откатывается: изменяющие запросы только перехватываются
+                transactionTemplate.executeWithoutResult(status -> {
+                    invocation.run();
+                    status.setRollbackOnly();
+                });
+            } finally {
+                RECORDED.remove();
+            }
+            String sql = find(recorded, fragment, name);
+            return new CapturedQuery(sql, expandArgs(sql, args));
+        });
+    }
+
+    private Arguments jdbc(String name, String fragment, Consumer<JdbcTemplate> invocation) {
+        return Arguments.of(name, (QuerySource) () -> {
+            RecordingJdbcTemplate recording = new RecordingJdbcTemplate(dataSource);
+            invocation.accept(recording);
+            return recording.recorded.stream()
+                    .filter(q -> q.sql().toLowerCase().contains(fragment))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError(name + " не выполнил запрос с '" + fragment + "'"));
+        });
+    }
+
+    private String explain(CapturedQuery query) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + query.sql(), String.class, query.args()));
+    }
+
+    private static String find(List<String> recorded, String fragment, String name) {
+        String found = recorded.stream()
+                .map(sql -> SQL_COMMENT.matcher(sql).replaceAll("").replaceAll("\\s+", " ").trim())
+                .filter(sql -> sql.toLowerCase().contains(fragment))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(found, name + " не выполнил запрос с '" + fragment + "': " + recorded);
+        return found;
+    }
+
+    private static Object[] expandArgs(String sql, Object[] args) {
+        int placeholders = (int) sql.chars().filter(c -> c == '?').count();
+        Object[] expanded = Arrays.copyOf(args, placeholders);
+        for (int i = args.length; i < placeholders; i++) {
+            expanded[i] = args[args.length - 1];
+        }
+        return expanded;
+    }
+
+    /** Запрос перехватывается при вызове параметризованного теста, когда контекст уже поднят. */
+    @FunctionalInterface
+    interface QuerySource {
+        CapturedQuery capture();
+    }
+
+    record CapturedQuery(String sql, Object[] args) {
+    }
+
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<CapturedQuery> recorded = new ArrayList<>();
+
+        RecordingJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        // через этот метод проходят query(sql, rowMapper, args...) и queryForList(sql, type, args...)
+        @Override
+        @SuppressWarnings("deprecation")
+        public <T> T query(String sql, Object[] args, ResultSetExtractor<T> rse) {
+            recorded.add(new CapturedQuery(sql, args));
+            return super.query(sql, args, rse);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(EncryptionProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("cached");
+        user.setPassword("secret");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        userRepository.save(user);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByUsername_hitsSecondLevelCacheAfterFirstCall() {
+        Optional<User> first = userRepository.findByUsername("cached");
+        assertTrue(first.isPresent());
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        long naturalIdHitsAfterFirst = statistics.getNaturalIdCacheHitCount();
+        long entityHitsAfterFirst = statistics.getSecondLevelCacheHitCount();
+        assertTrue(statementsAfterFirst > 0);
+
+        Optional<User> second = userRepository.findByUsername("cached");
+
+        assertTrue(second.isPresent());
+        assertEquals(Set.of(Role.ROLE_USER), second.get().getRoles());
+        assertEquals(statementsAfterFirst, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > naturalIdHitsAfterFirst);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > entityHitsAfterFirst);
+    }
+
+    @Test
+    void findByUsername_seesRenamedUser() {
+        User user = userRepository.findByUsername("cached").orElseThrow();
+        user.setUsername("renamed");
+        userRepository.save(user);
+
+        assertTrue(userRepository.findByUsername("renamed").isPresent());
+        assertTrue(userRepository.findByUsername("cached").isEmpty());
+    }
+
+    @Test
+    void findByUsername_unknownUser() {
+        assertTrue(userRepository.findByUsername("missing").isEmpty());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+    private InMemoryRateLimiterBackend backend;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Route login = new RateLimitProperties.Route();
+        login.setPattern("/api/v1/auth/login");
+        login.setIpCapacity(10);
+        login.setIpRefillPerSecond(1);
+        login.setUserCapacity(2);
+        login.setUserRefillPerSecond(0.5);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(login));
+
+        backend = new InMemoryRateLimiterBackend(Duration.ofSeconds(30), nanos::get);
+        filter = new RateLimitFilter(properties, backend, new ObjectMapper());
+    }
+
+    @Test
+    void login_throttledPerUsername_withRetryAfter() throws Exception {
+        assertEquals(200, login("alice", "10.0.0.1").getStatus());
+        assertEquals(200, login("alice", "10.0.0.2").getStatus());
+
+        MockHttpServletResponse rejected = login("alice", "10.0.0.3");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+
+        assertEquals(200, login("bob", "10.0.0.3").getStatus());
+
+        nanos.addAndGet(2_000_000_000L);
+        assertEquals(200, login("alice", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void login_bodyStillReadableDownstream() throws Exception {
+        MockHttpServletRequest request = loginRequest("alice", "10.0.0.1");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("\"alice\""));
+    }
+
+    @Test
+    void login_oversizedBodyWithoutLength_notInspectedButFullyForwarded() throws Exception {
+        String padding = "x".repeat(20 * 1024);
+        byte[] content = ("{\"username\":\"alice\",\"password\":\"" + padding + "\"}").getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login") {
+                @Override
+                public long getContentLengthLong() {
+                    return -1;
+                }
+            };
+            request.setRemoteAddr("10.0.0.1");
+            request.setContentType("application/json");
+            request.setContent(content);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request, response, chain);
+
+            assertEquals(200, response.getStatus());
+            assertArrayEquals(content, chain.getRequest().getInputStream().readAllBytes());
+        }
+        assertEquals(1, backend.size());
+    }
+
+    @Test
+    void login_bufferedBody_notifiesReadListener() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(loginRequest("alice", "10.0.0.1"), new MockHttpServletResponse(), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        List<String> events = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).contains("\"alice\""));
+        assertEquals("done", events.get(1));
+        assertTrue(in.isFinished());
+    }
+
+    @Test
+    void idleBuckets_areEvicted() throws Exception {
+        login("alice", "10.0.0.1");
+        assertEquals(2, backend.size());
+
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        backend.evictIdle();
+
+        assertEquals(0, backend.size());
+    }
+
+    @Test
+    void unmatchedRoute_isNotLimited() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/cards/my");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(0, backend.size());
+    }
+
+    private MockHttpServletResponse login(String username, String ip) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(username, ip), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest loginRequest(String username, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"x\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
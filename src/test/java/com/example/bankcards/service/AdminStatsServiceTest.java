@@ -0,0 +1,132 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.AdminStatsResponseDto;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardStatusSummary;
+import com.example.bankcards.repository.RoleCount;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AdminStatsServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private AdminStatsService adminStatsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void cardEvents_updateCountersIncrementally() {
+        LocalDate thisMonth = LocalDate.now();
+        adminStatsService.onCardEvent(event(CardEventType.CREATED, null, CardStatus.ACTIVE, thisMonth, null));
+        adminStatsService.onCardEvent(event(CardEventType.CREATED, null, CardStatus.ACTIVE, thisMonth.plusYears(2), null));
+        adminStatsService.onCardEvent(event(CardEventType.BLOCKED, CardStatus.ACTIVE, CardStatus.BLOCKED, thisMonth, null));
+        adminStatsService.onCardEvent(event(CardEventType.DELETED, CardStatus.BLOCKED, null, thisMonth, new BigDecimal("0.00")));
+        adminStatsService.onUserCreated(Set.of(Role.ROLE_USER));
+
+        AdminStatsResponseDto stats = adminStatsService.getStats();
+
+        assertEquals(1, stats.getTotalCards());
+        assertEquals(1L, stats.getCardsByStatus().get(CardStatus.ACTIVE));
+        assertEquals(0L, stats.getCardsByStatus().get(CardStatus.BLOCKED));
+        assertEquals(0, stats.getCardsExpiringThisMonth());
+        assertEquals(1L, stats.getUsersByRole().get(Role.ROLE_USER));
+        verifyNoInteractions(cardRepository, userRepository);
+    }
+
+    @Test
+    void reconcile_correctsDrift() {
+        CardStatusSummary active = mock(CardStatusSummary.class);
+        when(active.getStatus()).thenReturn(CardStatus.ACTIVE);
+        when(active.getCardCount()).thenReturn(10L);
+        when(active.getTotalBalance()).thenReturn(new BigDecimal("1234.50"));
+        RoleCount admins = mock(RoleCount.class);
+        when(admins.getRole()).thenReturn(Role.ROLE_ADMIN);
+        when(admins.getUserCount()).thenReturn(2L);
+        when(cardRepository.summarizeAll()).thenReturn(List.of(active));
+        when(userRepository.countByRole()).thenReturn(List.of(admins));
+        when(cardRepository.countByExpiryDateBetween(any(), any())).thenReturn(4L);
+
+        adminStatsService.onCardEvent(event(CardEventType.CREATED, null, CardStatus.BLOCKED, null, null));
+        adminStatsService.reconcile();
+
+        AdminStatsResponseDto stats = adminStatsService.getStats();
+        assertEquals(10, stats.getTotalCards());
+        assertEquals(0L, stats.getCardsByStatus().get(CardStatus.BLOCKED));
+        assertEquals(new BigDecimal("1234.50"), stats.getTotalBalance());
+        assertEquals(4, stats.getCardsExpiringThisMonth());
+        assertEquals(2L, stats.getUsersByRole().get(Role.ROLE_ADMIN));
+        assertNotNull(stats.getLastReconciledAt());
+    }
+
+    @Test
+    void reconcile_keepsIncrementsArrivingDuringSnapshot() {
+        CardStatusSummary active = mock(CardStatusSummary.class);
+        when(active.getStatus()).thenReturn(CardStatus.ACTIVE);
+        when(active.getCardCount()).thenReturn(10L);
+        when(active.getTotalBalance()).thenReturn(BigDecimal.ZERO);
+        // карта создана, пока идёт агрегирующий запрос, и в снимок не попала
+        when(cardRepository.summarizeAll()).thenAnswer(inv -> {
+            adminStatsService.onCardEvent(event(CardEventType.CREATED, null, CardStatus.ACTIVE, null, null));
+            return List.of(active);
+        });
+        adminStatsService.onCardEvent(event(CardEventType.CREATED, null, CardStatus.ACTIVE, null, null));
+
+        adminStatsService.reconcile();
+
+        assertEquals(11L, adminStatsService.getStats().getCardsByStatus().get(CardStatus.ACTIVE));
+    }
+
+    @Test
+    void onUserCardsDeleted_subtractsUserCards() {
+        LocalDate thisMonth = LocalDate.now();
+        adminStatsService.onCardEvent(event(CardEventType.CREATED, null, CardStatus.ACTIVE, thisMonth, null));
+        adminStatsService.onCardEvent(event(CardEventType.CREATED, null, CardStatus.ACTIVE, thisMonth, null));
+        adminStatsService.onCardEvent(event(CardEventType.CREATED, null, CardStatus.BLOCKED, null, null));
+        CardStatusSummary active = mock(CardStatusSummary.class);
+        when(active.getStatus()).thenReturn(CardStatus.ACTIVE);
+        when(active.getCardCount()).thenReturn(2L);
+        when(active.getTotalBalance()).thenReturn(BigDecimal.ZERO);
+        when(cardRepository.summarizeAllByUserId(7L)).thenReturn(List.of(active));
+        when(cardRepository.countByUserIdAndExpiryDateBetween(eq(7L), any(), any())).thenReturn(2L);
+
+        adminStatsService.onUserCardsDeleted(7L);
+
+        AdminStatsResponseDto stats = adminStatsService.getStats();
+        assertEquals(1, stats.getTotalCards());
+        assertEquals(0L, stats.getCardsByStatus().get(CardStatus.ACTIVE));
+        assertEquals(0, stats.getCardsExpiringThisMonth());
+    }
+
+    private static CardEvent event(CardEventType type, CardStatus previous, CardStatus status,
+                                   LocalDate expiry, BigDecimal amount) {
+        return new CardEvent(type, 1L, 1L, previous, status, expiry, null, amount, "admin", Instant.now());
+    }
+}
@@ -10,12 +10,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class AuthServiceTest {
@@ -26,12 +28,19 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Mock
+    private AdminStatsService adminStatsService;
+
     @InjectMocks
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(usernameIndex.mightExist(anyString())).thenReturn(true);
     }
 
     @Test
@@ -60,4 +69,29 @@ class AuthServiceTest {
 
         verify(userRepository, never()).save(any(User.class));
     }
+
+    @Test
+    void register_filterSaysAbsent_skipsExistsQuery() {
+        when(usernameIndex.mightExist("john")).thenReturn(false);
+        when(passwordEncoder.encode("pass")).thenReturn("encodedPass");
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        authService.register("john", "pass");
+
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(usernameIndex).add("john");
+    }
+
+    @Test
+    void register_uniqueConstraintViolation_mapsToValidationError() {
+        when(userRepository.existsByUsername("john")).thenReturn(false);
+        when(passwordEncoder.encode("pass")).thenReturn("encodedPass");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> authService.register("john", "pass"));
+
+        assertEquals(ErrorStatus.VALIDATION_ERROR, ex.getErrorStatus());
+        verify(usernameIndex, never()).add(anyString());
+    }
 }
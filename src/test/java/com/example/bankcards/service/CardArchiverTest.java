@@ -0,0 +1,75 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardArchiveProperties;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import com.example.bankcards.support.LiquibaseH2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardArchiverTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private CardArchiveProperties properties;
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = LiquibaseH2.dataSource("archive");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        properties = new CardArchiveProperties();
+        properties.setBatchSize(7);
+        properties.setPauseBetweenBatchesMs(0);
+    }
+
+    @Test
+    void archive_movesOnlyLongExpiredCards_inBatches_andMarksThemExpired() {
+        LocalDate longAgo = LocalDate.now().minusYears(2);
+        LocalDate recently = LocalDate.now().minusMonths(1);
+        for (long id = 1; id <= 20; id++) {
+            insert(id, "EXPIRED", longAgo);
+        }
+        insert(21, "EXPIRED", recently);
+        insert(22, "ACTIVE", longAgo);
+        insert(23, "BLOCKED", longAgo);
+
+        int archived = new CardArchiver(properties, jdbcTemplate, transactionTemplate, events::add).archive();
+
+        // статус обновляется лениво: давно просроченные ACTIVE и BLOCKED карты тоже уходят в архив
+        assertEquals(22, archived);
+        assertEquals(List.of(21L),
+                jdbcTemplate.queryForList("SELECT id FROM cards WHERE archived = FALSE ORDER BY id", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cards WHERE archived = TRUE AND status <> 'EXPIRED'", Integer.class));
+        assertEquals(22, events.size());
+        CardEvent stale = events.stream().map(CardEvent.class::cast).filter(e -> e.cardId() == 22L).findFirst().orElseThrow();
+        assertEquals(CardStatus.ACTIVE, stale.previousStatus());
+        assertEquals(CardStatus.EXPIRED, stale.status());
+        CardEvent event = (CardEvent) events.get(0);
+        assertEquals(CardEventType.ARCHIVED, event.type());
+        assertEquals(1000L + event.cardId(), event.ownerId());
+
+        assertEquals(0, new CardArchiver(properties, jdbcTemplate, transactionTemplate, events::add).archive());
+    }
+
+    private void insert(long id, String status, LocalDate expiry) {
+        long userId = 1000 + id;
+        jdbcTemplate.update("INSERT INTO users (id, username, password) VALUES (?, ?, 'secret')", userId, "user" + userId);
+        jdbcTemplate.update("INSERT INTO cards (id, number_encrypted, user_id, status, expiry_date) VALUES (?, ?, ?, ?, ?)",
+                id, "enc-" + id, userId, status, Date.valueOf(expiry));
+    }
+}
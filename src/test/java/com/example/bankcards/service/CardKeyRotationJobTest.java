@@ -0,0 +1,90 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.support.LiquibaseH2;
+import com.example.bankcards.util.CardNumberEncryptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardKeyRotationJobTest {
+
+    private static final int CARDS = 1_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = LiquibaseH2.dataSource("rotation");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.update("INSERT INTO users (id, username, password) VALUES (1, 'user1', 'secret')");
+
+        CardNumberEncryptor legacy = new CardNumberEncryptor(properties(null));
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= CARDS; id++) {
+            rows.add(new Object[]{id * 3, legacy.convertToDatabaseColumn(number(id * 3))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cards (id, number_encrypted, expiry_date, status, user_id) "
+                + "VALUES (?, ?, DATE '2030-01-01', 'ACTIVE', 1)", rows);
+    }
+
+    @Test
+    void rotate_reEncryptsEveryCardWithActiveKey() {
+        EncryptionProperties properties = properties("v1");
+        CardNumberEncryptor encryptor = new CardNumberEncryptor(properties);
+
+        long done = new CardKeyRotationJob(properties, encryptor, jdbcTemplate, transactionTemplate).rotate();
+
+        assertEquals(CARDS, done);
+        jdbcTemplate.query("SELECT id, number_encrypted FROM cards", rs -> {
+            String stored = rs.getString("number_encrypted");
+            assertTrue(stored.startsWith("v1:"));
+            assertEquals(number(rs.getLong("id")), encryptor.convertToEntityAttribute(stored));
+        });
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM key_rotation_checkpoint WHERE completed = FALSE", Integer.class));
+    }
+
+    @Test
+    void rotate_resumesFromCheckpoint_andSkipsCompletedRanges() {
+        EncryptionProperties properties = properties("v1");
+        CardNumberEncryptor encryptor = new CardNumberEncryptor(properties);
+        // первый диапазон [0, 1000) уже пройден до id 600
+        jdbcTemplate.update("INSERT INTO key_rotation_checkpoint (key_id, range_start, last_id, completed) VALUES ('v1', 0, 600, FALSE)");
+
+        long done = new CardKeyRotationJob(properties, encryptor, jdbcTemplate, transactionTemplate).rotate();
+
+        assertEquals(CARDS - 200, done);
+        assertFalse(jdbcTemplate.queryForObject("SELECT number_encrypted FROM cards WHERE id = 3", String.class)
+                .startsWith("v1:"));
+
+        assertEquals(0, new CardKeyRotationJob(properties, encryptor, jdbcTemplate, transactionTemplate).rotate());
+    }
+
+    private static String number(long id) {
+        return String.format("4276%012d", id);
+    }
+
+    private static EncryptionProperties properties(String activeKeyId) {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setAesKey("MySecretKey12345");
+        properties.setKeys(Map.of("v1", "RotatedKey_00001"));
+        properties.setActiveKeyId(activeKeyId);
+        properties.getRotation().setWorkers(3);
+        properties.getRotation().setBatchSize(50);
+        properties.getRotation().setRangeSize(1_000);
+        properties.getRotation().setPauseBetweenBatchesMs(0);
+        return properties;
+    }
+}
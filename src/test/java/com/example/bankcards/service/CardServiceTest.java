@@ -1,26 +1,45 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.HoldProperties;
 import com.example.bankcards.dto.request.CardCreateRequestDto;
+import com.example.bankcards.dto.request.CardSearchRequestDto;
 import com.example.bankcards.dto.response.CardResponseDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Hold;
+import com.example.bankcards.entity.HoldStatus;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
 import com.example.bankcards.exception.ApiErrorException;
 import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.repository.CardOwnerRef;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.HoldRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.balance.BalanceEngine;
+import com.example.bankcards.service.limit.SpendingLimitService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +58,30 @@ class CardServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private ObjectProvider<BalanceEngine> balanceEngineProvider;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
+    @Mock
+    private CardReferenceResolver cardReferenceResolver;
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Spy
+    private HoldProperties holdProperties = new HoldProperties();
+
+    @Mock
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC);
+
     @InjectMocks
     private CardService cardService;
 
@@ -106,6 +149,43 @@ class CardServiceTest {
         Card result = cardService.blockCard(1L);
 
         assertEquals(CardStatus.BLOCKED, result.getStatus());
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof CardEvent event
+                && event.type() == CardEventType.BLOCKED && event.cardId().equals(1L)));
+    }
+
+    @Test
+    void approveBlockRequests_publishesEventPerApprovedCard() {
+        CardOwnerRef approved = mock(CardOwnerRef.class);
+        when(approved.getId()).thenReturn(7L);
+        when(approved.getUserId()).thenReturn(1L);
+        when(cardRepository.approveBlockRequests(anyCollection())).thenReturn(List.of(approved));
+
+        List<Long> result = cardService.approveBlockRequests(List.of(7L, 8L));
+
+        assertEquals(List.of(7L), result);
+        verify(eventPublisher, times(1)).publishEvent(any(CardEvent.class));
+    }
+
+    @Test
+    void searchCards_withoutIndexedCondition_isRejected() {
+        CardSearchRequestDto request = new CardSearchRequestDto();
+        request.setBalanceMin(BigDecimal.TEN);
+
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> cardService.searchCards(request, 50));
+
+        assertEquals(ErrorStatus.VALIDATION_ERROR, ex.getErrorStatus());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void searchCards_unknownUsername_returnsEmpty() {
+        CardSearchRequestDto request = new CardSearchRequestDto();
+        request.setUsername("ghost");
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertTrue(cardService.searchCards(request, 50).isEmpty());
+        verifyNoInteractions(cardRepository);
     }
 
     @Test
@@ -151,7 +231,7 @@ class CardServiceTest {
 
     @Test
     void deleteCard_notFound() {
-        when(cardRepository.existsById(1L)).thenReturn(false);
+        when(cardRepository.findById(1L)).thenReturn(Optional.empty());
 
         ApiErrorException ex = assertThrows(ApiErrorException.class,
                 () -> cardService.deleteCard(1L));
@@ -161,11 +241,15 @@ class CardServiceTest {
 
     @Test
     void deleteCard_success() {
-        when(cardRepository.existsById(1L)).thenReturn(true);
+        Card card = new Card(1L, "1111222233334444", LocalDate.now().plusYears(1), CardStatus.ACTIVE, BigDecimal.TEN, null);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
 
         cardService.deleteCard(1L);
 
-        verify(cardRepository, times(1)).deleteById(1L);
+        verify(cardRepository, times(1)).softDelete(eq(1L), any());
+        verify(holdRepository).releaseByCardId(1L);
+        verify(scheduledTransferRepository).cancelByCardId(1L);
+        verify(cardRepository, never()).deleteById(any());
     }
 
     @Test
@@ -292,8 +376,8 @@ class CardServiceTest {
 
         when(authentication.getName()).thenReturn("user");
         when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(from));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(to));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(to));
 
         ApiErrorException ex = assertThrows(ApiErrorException.class,
                 () -> cardService.transferBetweenCards(1L, 2L, BigDecimal.valueOf(100), authentication));
@@ -316,12 +400,230 @@ class CardServiceTest {
 
         when(authentication.getName()).thenReturn("user");
         when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(from));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(to));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(to));
 
         cardService.transferBetweenCards(1L, 2L, BigDecimal.valueOf(50), authentication);
 
         assertEquals(BigDecimal.valueOf(150), from.getBalance());
         assertEquals(BigDecimal.valueOf(50), to.getBalance());
     }
+
+    @Test
+    void transfer_limitExceeded_leavesBalancesUntouched() {
+        User user = new User();
+        user.setId(1L);
+        Card from = new Card();
+        from.setUser(user);
+        from.setBalance(BigDecimal.valueOf(200));
+        from.setStatus(CardStatus.ACTIVE);
+        Card to = new Card();
+        to.setUser(user);
+        to.setBalance(BigDecimal.ZERO);
+        to.setStatus(CardStatus.ACTIVE);
+
+        when(authentication.getName()).thenReturn("user");
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(to));
+        doThrow(new ApiErrorException(ErrorStatus.DAILY_LIMIT_EXCEEDED))
+                .when(spendingLimitService).reserve(from, BigDecimal.valueOf(50));
+
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> cardService.transferBetweenCards(1L, 2L, BigDecimal.valueOf(50), authentication));
+
+        assertEquals(ErrorStatus.DAILY_LIMIT_EXCEEDED, ex.getErrorStatus());
+        assertEquals(BigDecimal.valueOf(200), from.getBalance());
+        verify(cardRepository, never()).save(any(Card.class));
+    }
+
+    @Test
+    void transferToCard_otherOwner_locksRowsInIdOrder() {
+        User sender = new User();
+        sender.setId(1L);
+        User recipient = new User();
+        recipient.setId(2L);
+        Card from = new Card();
+        from.setId(7L);
+        from.setUser(sender);
+        from.setBalance(BigDecimal.valueOf(100));
+        from.setStatus(CardStatus.ACTIVE);
+        Card to = new Card();
+        to.setId(3L);
+        to.setUser(recipient);
+        to.setBalance(BigDecimal.ZERO);
+        to.setStatus(CardStatus.ACTIVE);
+
+        when(authentication.getName()).thenReturn("sender");
+        when(userRepository.findByUsername("sender")).thenReturn(Optional.of(sender));
+        when(cardReferenceResolver.resolve("4000 0000 0000 0003")).thenReturn(Optional.of(3L));
+        when(cardRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(from));
+        when(cardRepository.findByIdForUpdate(3L)).thenReturn(Optional.of(to));
+
+        cardService.transferToCard(7L, "4000 0000 0000 0003", BigDecimal.valueOf(40), authentication);
+
+        InOrder locks = inOrder(cardRepository);
+        locks.verify(cardRepository).findByIdForUpdate(3L);
+        locks.verify(cardRepository).findByIdForUpdate(7L);
+        verify(spendingLimitService).reserve(from, BigDecimal.valueOf(40));
+        assertEquals(BigDecimal.valueOf(60), from.getBalance());
+        assertEquals(BigDecimal.valueOf(40), to.getBalance());
+    }
+
+    @Test
+    void transferToCard_blockedRecipient_forbidden() {
+        User sender = new User();
+        sender.setId(1L);
+        Card from = new Card();
+        from.setId(1L);
+        from.setUser(sender);
+        from.setBalance(BigDecimal.valueOf(100));
+        from.setStatus(CardStatus.ACTIVE);
+        Card to = new Card();
+        to.setId(2L);
+        to.setUser(new User());
+        to.setBalance(BigDecimal.ZERO);
+        to.setStatus(CardStatus.BLOCKED);
+
+        when(authentication.getName()).thenReturn("sender");
+        when(userRepository.findByUsername("sender")).thenReturn(Optional.of(sender));
+        when(cardReferenceResolver.resolve("4000000000000002")).thenReturn(Optional.of(2L));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(to));
+
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> cardService.transferToCard(1L, "4000000000000002", BigDecimal.TEN, authentication));
+
+        assertEquals(ErrorStatus.FORBIDDEN_OPERATION, ex.getErrorStatus());
+        assertEquals(BigDecimal.valueOf(100), from.getBalance());
+    }
+
+    @Test
+    void transferToCard_unknownNumber_notFound() {
+        User sender = new User();
+        sender.setId(1L);
+        when(authentication.getName()).thenReturn("sender");
+        when(userRepository.findByUsername("sender")).thenReturn(Optional.of(sender));
+        when(cardReferenceResolver.resolve("4000000000000009")).thenReturn(Optional.empty());
+
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> cardService.transferToCard(1L, "4000000000000009", BigDecimal.TEN, authentication));
+
+        assertEquals(ErrorStatus.CARD_NOT_FOUND, ex.getErrorStatus());
+        verify(cardRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    void placeHold_reservesAvailableBalance() {
+        User user = new User();
+        user.setId(1L);
+        Card card = new Card();
+        card.setId(1L);
+        card.setUser(user);
+        card.setBalance(BigDecimal.valueOf(100));
+        card.setHeldAmount(BigDecimal.valueOf(70));
+        card.setStatus(CardStatus.ACTIVE);
+
+        when(authentication.getName()).thenReturn("user");
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(card));
+        when(holdRepository.save(any(Hold.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> cardService.placeHold(1L, BigDecimal.valueOf(31), authentication));
+        assertEquals(ErrorStatus.INSUFFICIENT_FUNDS, ex.getErrorStatus());
+
+        Hold hold = cardService.placeHold(1L, BigDecimal.valueOf(30), authentication);
+
+        assertEquals(HoldStatus.ACTIVE, hold.getStatus());
+        assertEquals(LocalDateTime.of(2026, 3, 10, 12, 0), hold.getCreatedAt());
+        assertEquals(hold.getCreatedAt().plus(holdProperties.getTtl()), hold.getExpiresAt());
+        assertEquals(BigDecimal.valueOf(100), card.getHeldAmount());
+        assertEquals(BigDecimal.valueOf(100), card.getBalance());
+        assertEquals(0, BigDecimal.ZERO.compareTo(card.getAvailableBalance()));
+    }
+
+    @Test
+    void captureHold_debitsBalance_andReleaseReturnsToAvailable() {
+        User user = new User();
+        user.setId(1L);
+        Card card = new Card();
+        card.setId(1L);
+        card.setUser(user);
+        card.setBalance(BigDecimal.valueOf(100));
+        card.setHeldAmount(BigDecimal.valueOf(50));
+        card.setStatus(CardStatus.ACTIVE);
+        Hold captured = Hold.builder().id(5L).cardId(1L).amount(BigDecimal.valueOf(30)).status(HoldStatus.ACTIVE).build();
+        Hold released = Hold.builder().id(6L).cardId(1L).amount(BigDecimal.valueOf(20)).status(HoldStatus.ACTIVE).build();
+
+        when(authentication.getName()).thenReturn("user");
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(card));
+        when(holdRepository.findById(5L)).thenReturn(Optional.of(captured));
+        when(holdRepository.findById(6L)).thenReturn(Optional.of(released));
+        when(holdRepository.capture(eq(5L), any())).thenReturn(1);
+        when(holdRepository.release(6L)).thenReturn(1);
+
+        cardService.captureHold(5L, authentication);
+        cardService.releaseHold(6L, authentication);
+
+        assertEquals(BigDecimal.valueOf(70), card.getBalance());
+        assertEquals(BigDecimal.ZERO, card.getHeldAmount());
+        assertEquals(HoldStatus.CAPTURED, captured.getStatus());
+        assertEquals(HoldStatus.RELEASED, released.getStatus());
+    }
+
+    @Test
+    void captureHold_notActive_forbidden() {
+        User user = new User();
+        user.setId(1L);
+        Card card = new Card();
+        card.setId(1L);
+        card.setUser(user);
+        card.setBalance(BigDecimal.valueOf(100));
+        card.setHeldAmount(BigDecimal.valueOf(30));
+        Hold hold = Hold.builder().id(5L).cardId(1L).amount(BigDecimal.valueOf(30)).status(HoldStatus.ACTIVE).build();
+
+        when(authentication.getName()).thenReturn("user");
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(card));
+        when(holdRepository.findById(5L)).thenReturn(Optional.of(hold));
+        when(holdRepository.capture(eq(5L), any())).thenReturn(0);
+
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> cardService.captureHold(5L, authentication));
+
+        assertEquals(ErrorStatus.FORBIDDEN_OPERATION, ex.getErrorStatus());
+        assertEquals(BigDecimal.valueOf(100), card.getBalance());
+        assertEquals(BigDecimal.valueOf(30), card.getHeldAmount());
+    }
+
+    @Test
+    void transfer_usesBalanceEngineWhenEnabled() {
+        User user = new User();
+        user.setId(1L);
+        Card from = new Card();
+        from.setId(1L);
+        from.setUser(user);
+        from.setBalance(BigDecimal.valueOf(10));
+        from.setStatus(CardStatus.ACTIVE);
+        Card to = new Card();
+        to.setId(2L);
+        to.setUser(user);
+        to.setBalance(BigDecimal.ZERO);
+        to.setStatus(CardStatus.ACTIVE);
+        BalanceEngine engine = mock(BalanceEngine.class);
+
+        when(authentication.getName()).thenReturn("user");
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(from));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(to));
+        when(balanceEngineProvider.getIfAvailable()).thenReturn(engine);
+
+        cardService.transferBetweenCards(1L, 2L, BigDecimal.valueOf(5), authentication);
+
+        verify(engine).transfer(1L, 2L, BigDecimal.valueOf(5));
+        verify(cardRepository, never()).save(any(Card.class));
+        assertEquals(BigDecimal.valueOf(10), from.getBalance());
+    }
 }
@@ -0,0 +1,111 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardSummaryResponseDto;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardStatusSummary;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.balance.BalanceEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CardSummaryServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ObjectProvider<BalanceEngine> balanceEngineProvider;
+
+    @Mock
+    private Authentication authentication;
+
+    private CardSummaryService cardSummaryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cardSummaryService = new CardSummaryService(cardRepository, userRepository, balanceEngineProvider,
+                true, 100, Duration.ofMinutes(5));
+
+        User user = new User();
+        user.setId(1L);
+        when(authentication.getName()).thenReturn("user1");
+        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
+        List<CardStatusSummary> rows = List.of(
+                row(CardStatus.ACTIVE, 2, "150.00", LocalDate.of(2030, 1, 1)),
+                row(CardStatus.EXPIRED, 1, "10.00", LocalDate.of(2020, 1, 1)));
+        when(cardRepository.summarizeByUserId(1L)).thenReturn(rows);
+    }
+
+    @Test
+    void getMySummary_aggregatesRows() {
+        CardSummaryResponseDto summary = cardSummaryService.getMySummary(authentication);
+
+        assertEquals(3, summary.getTotalCards());
+        assertEquals(2L, summary.getCardsByStatus().get(CardStatus.ACTIVE));
+        assertEquals(new BigDecimal("160.00"), summary.getTotalBalance());
+        assertEquals(LocalDate.of(2030, 1, 1), summary.getSoonestExpiry());
+    }
+
+    @Test
+    void getMySummary_isCachedUntilOwnerCardChanges() {
+        cardSummaryService.getMySummary(authentication);
+        cardSummaryService.getMySummary(authentication);
+        verify(cardRepository, times(1)).summarizeByUserId(1L);
+
+        cardSummaryService.onCardEvent(new CardEvent(CardEventType.BLOCKED, 5L, 2L, null, null, null, null, null, "admin", Instant.now()));
+        cardSummaryService.getMySummary(authentication);
+        verify(cardRepository, times(1)).summarizeByUserId(1L);
+
+        cardSummaryService.onCardEvent(new CardEvent(CardEventType.BLOCKED, 7L, 1L, null, null, null, null, null, "admin", Instant.now()));
+        cardSummaryService.getMySummary(authentication);
+        verify(cardRepository, times(2)).summarizeByUserId(1L);
+    }
+
+    @Test
+    void crossUserTransfer_invalidatesRecipientSummary() {
+        cardSummaryService.getMySummary(authentication);
+        List<CardStatusSummary> afterTransfer = List.of(
+                row(CardStatus.ACTIVE, 2, "190.00", LocalDate.of(2030, 1, 1)),
+                row(CardStatus.EXPIRED, 1, "10.00", LocalDate.of(2020, 1, 1)));
+        when(cardRepository.summarizeByUserId(1L)).thenReturn(afterTransfer);
+        when(cardRepository.findOwnerIdById(11L)).thenReturn(Optional.of(1L));
+
+        // пользователь 2 переводит 40 со своей карты 20 на карту 11 пользователя 1
+        cardSummaryService.onCardEvent(new CardEvent(CardEventType.TRANSFER, 20L, 2L, CardStatus.ACTIVE,
+                CardStatus.ACTIVE, null, 11L, new BigDecimal("40.00"), "user2", Instant.now()));
+
+        assertEquals(new BigDecimal("200.00"), cardSummaryService.getMySummary(authentication).getTotalBalance());
+        verify(cardRepository, times(2)).summarizeByUserId(1L);
+    }
+
+    private static CardStatusSummary row(CardStatus status, long count, String balance, LocalDate expiry) {
+        CardStatusSummary row = mock(CardStatusSummary.class);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getCardCount()).thenReturn(count);
+        when(row.getTotalBalance()).thenReturn(new BigDecimal(balance));
+        when(row.getSoonestExpiry()).thenReturn(expiry);
+        return row;
+    }
+}
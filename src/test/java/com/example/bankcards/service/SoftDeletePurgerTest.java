@@ -0,0 +1,117 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.SoftDeleteProperties;
+import com.example.bankcards.support.LiquibaseH2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoftDeletePurgerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SoftDeletePurger purger;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = LiquibaseH2.dataSource("purge");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        SoftDeleteProperties properties = new SoftDeleteProperties();
+        properties.setBatchSize(7);
+        properties.setPauseBetweenBatchesMs(0);
+        properties.setPurgeDelay(Duration.ofMinutes(1));
+        purger = new SoftDeletePurger(properties, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    @Test
+    void purge_removesDeletedUserWithAllCards_inBatches() {
+        LocalDateTime longAgo = LocalDateTime.now().minusHours(1);
+        insertUser(1, longAgo);
+        insertUser(2, null);
+        for (long id = 1; id <= 20; id++) {
+            insertCard(id, 1, longAgo);
+        }
+        insertCard(21, 2, null);
+        insertCard(22, 2, longAgo);
+
+        int purged = purger.purge();
+
+        assertEquals(22, purged);
+        assertEquals(List.of(21L), jdbcTemplate.queryForList("SELECT id FROM cards", Long.class));
+        assertEquals(List.of(2L), jdbcTemplate.queryForList("SELECT id FROM users", Long.class));
+        assertEquals(List.of(2L), jdbcTemplate.queryForList("SELECT user_id FROM user_roles", Long.class));
+    }
+
+    @Test
+    void purge_keepsRecentlyDeletedRows() {
+        LocalDateTime justNow = LocalDateTime.now();
+        insertUser(1, justNow);
+        insertCard(1, 1, justNow);
+
+        assertEquals(0, purger.purge());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+    }
+
+    @Test
+    void purge_removesRowsReferencingPurgedCards() {
+        LocalDateTime longAgo = LocalDateTime.now().minusHours(1);
+        insertUser(1, longAgo);
+        insertUser(2, null);
+        insertCard(1, 1, longAgo);
+        insertCard(2, 1, longAgo);
+        insertCard(3, 2, null);
+        insertCard(4, 2, longAgo);
+        for (long cardId = 1; cardId <= 3; cardId++) {
+            jdbcTemplate.update("INSERT INTO card_spending (card_id, bucket_hour, amount) VALUES (?, 1, 10)", cardId);
+            jdbcTemplate.update("INSERT INTO holds (card_id, amount, status, created_at, expires_at) "
+                    + "VALUES (?, 10, 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", cardId);
+        }
+        jdbcTemplate.update("INSERT INTO scheduled_transfers (id, user_id, from_card_id, to_card_id, amount, next_run_at, "
+                + "status, created_at) VALUES (1, 1, 1, 2, 10, CURRENT_TIMESTAMP, 'ACTIVE', CURRENT_TIMESTAMP), "
+                + "(2, 2, 3, 3, 10, CURRENT_TIMESTAMP, 'ACTIVE', CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO scheduled_transfer_runs (scheduled_transfer_id, scheduled_for, executed_at, outcome) "
+                + "VALUES (1, TIMESTAMP '2026-01-01 00:00:00', CURRENT_TIMESTAMP, 'SUCCESS'), "
+                + "(1, TIMESTAMP '2026-01-02 00:00:00', CURRENT_TIMESTAMP, 'SUCCESS'), "
+                + "(2, TIMESTAMP '2026-01-01 00:00:00', CURRENT_TIMESTAMP, 'SUCCESS')");
+        jdbcTemplate.update("INSERT INTO balance_ledger (from_card_id, to_card_id, amount, created_at, applied) "
+                + "VALUES (1, 3, 10, CURRENT_TIMESTAMP, TRUE), (3, 3, 10, CURRENT_TIMESTAMP, TRUE), "
+                + "(3, 4, 10, CURRENT_TIMESTAMP, FALSE)");
+
+        assertEquals(3, purger.purge());
+
+        assertEquals(List.of(3L, 4L), jdbcTemplate.queryForList("SELECT id FROM cards ORDER BY id", Long.class));
+        assertEquals(List.of(2L), jdbcTemplate.queryForList("SELECT id FROM users", Long.class));
+        assertEquals(List.of(3L), jdbcTemplate.queryForList("SELECT card_id FROM card_spending", Long.class));
+        assertEquals(List.of(3L), jdbcTemplate.queryForList("SELECT card_id FROM holds", Long.class));
+        assertEquals(List.of(2L), jdbcTemplate.queryForList("SELECT id FROM scheduled_transfers", Long.class));
+        assertEquals(List.of(2L), jdbcTemplate.queryForList("SELECT scheduled_transfer_id FROM scheduled_transfer_runs", Long.class));
+        // карта 4 ждёт, пока движок применит её запись журнала
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_ledger", Integer.class));
+    }
+
+    private void insertUser(long id, LocalDateTime deletedAt) {
+        jdbcTemplate.update("INSERT INTO users (id, username, password, deleted_at) VALUES (?, ?, 'secret', ?)",
+                id, "user" + id, timestamp(deletedAt));
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'ROLE_USER')", id);
+    }
+
+    private void insertCard(long id, long userId, LocalDateTime deletedAt) {
+        jdbcTemplate.update("INSERT INTO cards (id, number_encrypted, expiry_date, status, user_id, deleted_at) "
+                + "VALUES (?, ?, DATE '2030-01-01', 'ACTIVE', ?, ?)", id, "enc-" + id, userId, timestamp(deletedAt));
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+}
@@ -4,15 +4,20 @@ import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.ApiErrorException;
 import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.HoldRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
 import com.example.bankcards.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -29,12 +34,28 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Mock
+    private AdminStatsService adminStatsService;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Mock
+    private ScheduledTransferRepository scheduledTransferRepository;
+
     @InjectMocks
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(usernameIndex.mightExist(anyString())).thenReturn(true);
     }
 
     @Test
@@ -60,6 +81,19 @@ class UserServiceTest {
         assertEquals(ErrorStatus.VALIDATION_ERROR, ex.getErrorStatus());
     }
 
+    @Test
+    void createUser_uniqueConstraintViolation_mapsToValidationError() {
+        when(usernameIndex.mightExist("john")).thenReturn(false);
+        when(passwordEncoder.encode("pass")).thenReturn("encodedPass");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> userService.createUser("john", "pass", null));
+
+        assertEquals(ErrorStatus.VALIDATION_ERROR, ex.getErrorStatus());
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+
     @Test
     void createUser_defaultRoleUser_whenRolesNull() {
         when(userRepository.existsByUsername("john")).thenReturn(false);
@@ -168,16 +202,27 @@ class UserServiceTest {
 
     @Test
     void deleteUser_success() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        User user = new User();
+        user.setId(1L);
+        user.setRoles(Set.of(Role.ROLE_USER));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         userService.deleteUser(1L);
 
-        verify(userRepository).deleteById(1L);
+        verify(userRepository).softDelete(eq(1L), any());
+        verify(cardRepository).softDeleteByUserId(eq(1L), any());
+        verify(holdRepository).releaseByUserId(1L);
+        verify(scheduledTransferRepository).cancelByUserId(1L);
+        InOrder statsBeforeBulkDelete = inOrder(adminStatsService, cardRepository);
+        statsBeforeBulkDelete.verify(adminStatsService).onUserCardsDeleted(1L);
+        statsBeforeBulkDelete.verify(cardRepository).softDeleteByUserId(eq(1L), any());
+        verify(adminStatsService).onUserDeleted(Set.of(Role.ROLE_USER));
+        verify(userRepository, never()).deleteById(any());
     }
 
     @Test
     void deleteUser_notFound() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         ApiErrorException ex = assertThrows(ApiErrorException.class,
                 () -> userService.deleteUser(1L));
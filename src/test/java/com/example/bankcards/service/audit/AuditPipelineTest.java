@@ -0,0 +1,92 @@
+package com.example.bankcards.service.audit;
+
+import com.example.bankcards.config.AuditProperties;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AuditPipelineTest {
+
+    private final AuditEventWriter writer = mock(AuditEventWriter.class);
+    private AuditPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    void events_areWrittenInBatches() throws InterruptedException {
+        AuditProperties properties = new AuditProperties();
+        properties.setBatchSize(100);
+        pipeline = new AuditPipeline(properties, writer);
+        pipeline.start();
+
+        for (int i = 0; i < 50; i++) {
+            pipeline.offer(event(i));
+        }
+        pipeline.stop();
+
+        verify(writer, atLeastOnce()).writeEvents(anyList());
+        assertEquals(50, pipeline.getWritten());
+        assertEquals(0, pipeline.getDropped());
+    }
+
+    @Test
+    void fullBuffer_dropPolicy_countsDrops() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(writer).writeEvents(anyList());
+
+        AuditProperties properties = new AuditProperties();
+        properties.setBufferCapacity(2);
+        properties.setBatchSize(1);
+        pipeline = new AuditPipeline(properties, writer);
+        pipeline.start();
+
+        pipeline.offer(event(0));
+        verify(writer, timeout(1000)).writeEvents(anyList());
+        for (int i = 1; i <= 5; i++) {
+            pipeline.offer(event(i));
+        }
+
+        assertEquals(3, pipeline.getEnqueued());
+        assertEquals(3, pipeline.getDropped());
+        assertEquals(2, pipeline.getBacklog());
+        release.countDown();
+    }
+
+    @Test
+    void failedWrites_areRetriedThenCounted() throws InterruptedException {
+        doThrow(new IllegalStateException("db down")).when(writer).writeEvents(anyList());
+
+        AuditProperties properties = new AuditProperties();
+        properties.setWriteAttempts(2);
+        properties.setWriteRetryBackoffMs(1);
+        pipeline = new AuditPipeline(properties, writer);
+        pipeline.start();
+
+        pipeline.offer(event(0));
+        verify(writer, timeout(1000).times(2)).writeEvents(List.of(event(0)));
+        pipeline.stop();
+
+        assertEquals(1, pipeline.getFailed());
+        assertEquals(0, pipeline.getWritten());
+    }
+
+    private static CardEvent event(long cardId) {
+        return new CardEvent(CardEventType.BLOCKED, cardId, 1L, null, null, null, null, null, "admin", Instant.EPOCH);
+    }
+}
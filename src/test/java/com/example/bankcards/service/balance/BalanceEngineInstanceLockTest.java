@@ -0,0 +1,37 @@
+package com.example.bankcards.service.balance;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@Testcontainers(disabledWithoutDocker = true)
+class BalanceEngineInstanceLockTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Test
+    void secondInstance_failsToStartUntilFirstReleases() throws SQLException {
+        BalanceEngineInstanceLock first = new BalanceEngineInstanceLock(dataSource());
+        BalanceEngineInstanceLock second = new BalanceEngineInstanceLock(dataSource());
+
+        first.acquire();
+        assertThrows(IllegalStateException.class, second::acquire);
+
+        first.release();
+        assertDoesNotThrow(second::acquire);
+        second.release();
+    }
+
+    private static DriverManagerDataSource dataSource() {
+        return new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.bankcards.service.balance;
+
+import com.example.bankcards.config.BalanceEngineProperties;
+import com.example.bankcards.entity.BalanceLedgerEntry;
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BalanceEngineTest {
+
+    @Mock
+    private BalanceLedgerService ledgerService;
+
+    private BalanceEngine engine;
+
+    private final List<BalanceLedgerEntry> appended = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(ledgerService.loadBalance(anyLong())).thenReturn(BigDecimal.valueOf(100));
+        doAnswer(inv -> appended.addAll(inv.getArgument(0))).when(ledgerService).append(anyList());
+
+        BalanceEngineProperties properties = new BalanceEngineProperties();
+        properties.setShards(4);
+        properties.setFlushRetryBackoffMs(1);
+        engine = new BalanceEngine(properties, ledgerService);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        engine.stop();
+    }
+
+    @Test
+    void transfer_movesFundsAndWritesLedger() {
+        engine.transfer(1L, 2L, BigDecimal.valueOf(30));
+
+        assertEquals(BigDecimal.valueOf(70), engine.getBalance(1L));
+        assertEquals(BigDecimal.valueOf(130), engine.getBalance(2L));
+        assertEquals(1, appended.size());
+        assertEquals(BigDecimal.valueOf(30), appended.get(0).getAmount());
+        verify(ledgerService, timeout(1000)).apply(anyList());
+    }
+
+    @Test
+    void transfer_insufficientFunds() {
+        ApiErrorException ex = assertThrows(ApiErrorException.class,
+                () -> engine.transfer(1L, 2L, BigDecimal.valueOf(101)));
+
+        assertEquals(ErrorStatus.INSUFFICIENT_FUNDS, ex.getErrorStatus());
+        assertEquals(BigDecimal.valueOf(100), engine.getBalance(1L));
+        assertTrue(appended.isEmpty());
+    }
+
+    @Test
+    void transfer_retriesLedgerAppendUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(inv -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("db down");
+            }
+            return appended.addAll(inv.getArgument(0));
+        }).when(ledgerService).append(anyList());
+
+        engine.transfer(1L, 2L, BigDecimal.TEN);
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, appended.size());
+    }
+
+    @Test
+    void concurrentSkewedTransfers_conserveTotalBalance() {
+        int cards = 10;
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long from = random.nextInt(10) < 8 ? 1L : 1L + random.nextInt(cards);
+            long to = 1L + random.nextInt(cards);
+            futures.add(engine.transferAsync(from, to, BigDecimal.ONE).exceptionally(e -> null));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (long id = 1; id <= cards; id++) {
+            BigDecimal balance = engine.getBalance(id);
+            assertTrue(balance.signum() >= 0);
+            total = total.add(balance);
+        }
+        assertEquals(BigDecimal.valueOf(100L * cards), total);
+    }
+
+    @Test
+    void transfer_timedOutBeforeStart_isNotExecuted() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        when(ledgerService.loadBalance(7L)).thenAnswer(inv -> {
+            loading.await(5, TimeUnit.SECONDS);
+            return BigDecimal.valueOf(100);
+        });
+        BalanceEngine slow = engineWithTimeout(50);
+        try {
+            // шард карты 7 занят загрузкой баланса, второй перевод ждёт в очереди дольше таймаута
+            CompletableFuture<Void> first = slow.transferAsync(7L, 2L, BigDecimal.TEN);
+            ApiErrorException ex = assertThrows(ApiErrorException.class,
+                    () -> slow.transfer(7L, 2L, BigDecimal.TEN));
+            loading.countDown();
+            first.get(5, TimeUnit.SECONDS);
+
+            assertEquals(ErrorStatus.INTERNAL_ERROR, ex.getErrorStatus());
+            assertEquals(BigDecimal.valueOf(90), slow.getBalance(7L));
+        } finally {
+            slow.stop();
+        }
+    }
+
+    @Test
+    void transfer_startedBeforeTimeout_waitsForLedger() throws Exception {
+        doAnswer(inv -> {
+            Thread.sleep(300);
+            return appended.addAll(inv.getArgument(0));
+        }).when(ledgerService).append(anyList());
+        BalanceEngine slow = engineWithTimeout(50);
+        try {
+            slow.transfer(1L, 2L, BigDecimal.TEN);
+
+            assertEquals(1, appended.size());
+            assertEquals(BigDecimal.valueOf(90), slow.getBalance(1L));
+        } finally {
+            slow.stop();
+        }
+    }
+
+    private BalanceEngine engineWithTimeout(long timeoutMs) {
+        BalanceEngineProperties properties = new BalanceEngineProperties();
+        properties.setShards(4);
+        properties.setFlushRetryBackoffMs(1);
+        properties.setOperationTimeoutMs(timeoutMs);
+        BalanceEngine slow = new BalanceEngine(properties, ledgerService);
+        slow.start();
+        return slow;
+    }
+}
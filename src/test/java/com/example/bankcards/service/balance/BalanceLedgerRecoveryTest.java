@@ -0,0 +1,99 @@
+package com.example.bankcards.service.balance;
+
+import com.example.bankcards.config.BalanceEngineProperties;
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.entity.BalanceLedgerEntry;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.BalanceLedgerRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Журнал записан, но не применён к cards — как после падения между append и apply. */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({EncryptionProperties.class, BalanceLedgerService.class})
+class BalanceLedgerRecoveryTest {
+
+    @Autowired
+    private BalanceLedgerService ledgerService;
+
+    @Autowired
+    private BalanceLedgerRepository ledgerRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void restart_replaysUnappliedLedgerExactlyOnce() throws InterruptedException {
+        User owner = new User();
+        owner.setUsername("owner");
+        owner.setPassword("secret");
+        owner.setRoles(Set.of(Role.ROLE_USER));
+        userRepository.save(owner);
+        Card from = card(owner, "4000000000001000");
+        Card to = card(owner, "4000000000001001");
+
+        ledgerService.append(List.of(entry(from, to, "30.00"), entry(to, from, "5.00")));
+        entityManager.flush();
+
+        assertEquals(0, new BigDecimal("75.00").compareTo(ledgerService.loadBalance(from.getId())));
+        assertEquals(0, new BigDecimal("125.00").compareTo(ledgerService.loadBalance(to.getId())));
+
+        BalanceEngine engine = new BalanceEngine(new BalanceEngineProperties(), ledgerService);
+        engine.start();
+        engine.stop();
+        entityManager.clear();
+
+        assertTrue(ledgerRepository.findByAppliedFalseOrderByIdAsc(PageRequest.of(0, 10)).isEmpty());
+        assertEquals(0, new BigDecimal("75.00").compareTo(cardRepository.findBalanceById(from.getId()).orElseThrow()));
+        assertEquals(0, new BigDecimal("125.00").compareTo(cardRepository.findBalanceById(to.getId()).orElseThrow()));
+        // применённые записи больше не добавляются к балансу при загрузке
+        assertEquals(0, new BigDecimal("75.00").compareTo(ledgerService.loadBalance(from.getId())));
+    }
+
+    private Card card(User owner, String number) {
+        Card card = new Card();
+        card.setUser(owner);
+        card.setNumber(number);
+        card.setExpiryDate(LocalDate.now().plusYears(1));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal("100.00"));
+        return cardRepository.save(card);
+    }
+
+    private static BalanceLedgerEntry entry(Card from, Card to, String amount) {
+        return BalanceLedgerEntry.builder()
+                .fromCardId(from.getId())
+                .toCardId(to.getId())
+                .amount(new BigDecimal(amount))
+                .createdAt(LocalDateTime.now())
+                .applied(false)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bankcards.service.hold;
+
+import com.example.bankcards.config.HoldProperties;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import com.example.bankcards.support.LiquibaseH2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldExpirerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDateTime NOW = LocalDateTime.now(CLOCK);
+
+    private JdbcTemplate jdbcTemplate;
+    private HoldExpirer expirer;
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = LiquibaseH2.dataSource("holds");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, username, password) VALUES (10, 'user10', 'secret'), (20, 'user20', 'secret')");
+        HoldProperties properties = new HoldProperties();
+        properties.setBatchSize(3);
+        expirer = new HoldExpirer(properties, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), events::add, CLOCK);
+    }
+
+    @Test
+    void expire_releasesOnlyLapsedActiveHolds() {
+        LocalDateTime past = NOW.minusMinutes(1);
+        LocalDateTime future = NOW.plusDays(1);
+        insertCard(1, 10, 60);
+        insertCard(2, 20, 5);
+        insertHold(1, 1, 10, "ACTIVE", past);
+        insertHold(2, 1, 20, "ACTIVE", past);
+        insertHold(3, 1, 30, "ACTIVE", future);
+        insertHold(4, 2, 5, "ACTIVE", past);
+        insertHold(5, 2, 7, "CAPTURED", past);
+
+        int expired = expirer.expire(List.of(1L, 2L, 3L, 4L, 5L));
+
+        assertEquals(3, expired);
+        assertEquals(List.of("EXPIRED", "EXPIRED", "ACTIVE", "EXPIRED", "CAPTURED"),
+                jdbcTemplate.queryForList("SELECT status FROM holds ORDER BY id", String.class));
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(heldAmount(1)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(heldAmount(2)));
+        assertEquals(3, events.size());
+        CardEvent event = (CardEvent) events.get(0);
+        assertEquals(CardEventType.HOLD_EXPIRED, event.type());
+        assertEquals(10L, event.ownerId());
+        assertEquals(CLOCK.instant(), event.occurredAt());
+
+        assertEquals(0, expirer.expire(List.of(1L, 2L, 4L)));
+    }
+
+    @Test
+    void expireDue_sweepsHoldsUnknownToTheWheel_inBatches() {
+        LocalDateTime past = NOW.minusMinutes(1);
+        insertCard(1, 10, 70);
+        for (long id = 1; id <= 7; id++) {
+            insertHold(id, 1, 10, "ACTIVE", past);
+        }
+
+        assertEquals(7, expirer.expireDue());
+        assertEquals(0, BigDecimal.ZERO.compareTo(heldAmount(1)));
+    }
+
+    private void insertCard(long id, long userId, long heldAmount) {
+        jdbcTemplate.update("INSERT INTO cards (id, number_encrypted, expiry_date, status, balance, held_amount, user_id) "
+                + "VALUES (?, ?, DATE '2030-01-01', 'ACTIVE', 100, ?, ?)", id, "enc-" + id, BigDecimal.valueOf(heldAmount), userId);
+    }
+
+    private void insertHold(long id, long cardId, long amount, String status, LocalDateTime expiresAt) {
+        jdbcTemplate.update("INSERT INTO holds (id, card_id, amount, status, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?)",
+                id, cardId, BigDecimal.valueOf(amount), status, Timestamp.valueOf(NOW.minusMinutes(5)), Timestamp.valueOf(expiresAt));
+    }
+
+    private BigDecimal heldAmount(long cardId) {
+        return jdbcTemplate.queryForObject("SELECT held_amount FROM cards WHERE id = ?", BigDecimal.class, cardId);
+    }
+}
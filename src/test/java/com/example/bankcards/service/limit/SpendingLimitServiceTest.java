@@ -0,0 +1,89 @@
+package com.example.bankcards.service.limit;
+
+import com.example.bankcards.config.SpendingLimitProperties;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.support.LiquibaseH2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpendingLimitServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-03-10T12:30:00Z"), ZoneOffset.UTC);
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private SpendingLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = LiquibaseH2.dataSource("spending");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        properties = new SpendingLimitProperties();
+    }
+
+    @Test
+    void reserve_persistsHourlyBuckets_andRebuildsWindowAfterRestart() {
+        Card card = limitedCard(BigDecimal.valueOf(100), null);
+        service().reserve(card, BigDecimal.valueOf(30));
+        service().reserve(card, BigDecimal.valueOf(40));
+        long hour = CLOCK.millis() / 3_600_000L;
+        jdbcTemplate.update("INSERT INTO card_spending VALUES (?, ?, ?)", card.getId(), hour - 30, BigDecimal.valueOf(500));
+
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(jdbcTemplate.queryForObject(
+                "SELECT amount FROM card_spending WHERE card_id = ? AND bucket_hour = ?", BigDecimal.class, card.getId(), hour)));
+
+        SpendingLimitService restarted = service();
+        restarted.reserve(card, BigDecimal.valueOf(30));
+        ApiErrorException ex = assertThrows(ApiErrorException.class, () -> restarted.reserve(card, BigDecimal.ONE));
+        assertEquals(ErrorStatus.DAILY_LIMIT_EXCEEDED, ex.getErrorStatus());
+
+        Card monthly = limitedCard(null, BigDecimal.valueOf(600));
+        monthly.setId(card.getId());
+        ApiErrorException monthEx = assertThrows(ApiErrorException.class, () -> service().reserve(monthly, BigDecimal.ONE));
+        assertEquals(ErrorStatus.MONTHLY_LIMIT_EXCEEDED, monthEx.getErrorStatus());
+    }
+
+    @Test
+    void rolledBackTransfer_releasesReservedAmount() {
+        SpendingLimitService service = service();
+        Card card = limitedCard(BigDecimal.valueOf(100), null);
+        TransactionTemplate transfer = new TransactionTemplate(transactionManager);
+
+        assertThrows(IllegalStateException.class, () -> transfer.executeWithoutResult(status -> {
+            service.reserve(card, BigDecimal.valueOf(80));
+            throw new IllegalStateException("transfer failed");
+        }));
+        // корзина создаётся в транзакции перевода и откатывается вместе с ней
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_spending", Integer.class));
+
+        transfer.executeWithoutResult(status -> service.reserve(card, BigDecimal.valueOf(100)));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM card_spending WHERE card_id = ?", BigDecimal.class, card.getId())));
+    }
+
+    private SpendingLimitService service() {
+        return new SpendingLimitService(properties, jdbcTemplate, CLOCK);
+    }
+
+    private static Card limitedCard(BigDecimal dailyLimit, BigDecimal monthlyLimit) {
+        Card card = new Card();
+        card.setId(1L);
+        card.setDailyLimit(dailyLimit);
+        card.setMonthlyLimit(monthlyLimit);
+        return card;
+    }
+}
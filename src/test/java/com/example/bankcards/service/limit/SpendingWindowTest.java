@@ -0,0 +1,45 @@
+package com.example.bankcards.service.limit;
+
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpendingWindowTest {
+
+    private static final long START = 480_000L;
+
+    @Test
+    void bucketsLeaveWindowsAsTimeAdvances() {
+        SpendingWindow window = new SpendingWindow(START);
+        window.record(START, BigDecimal.valueOf(100));
+        window.record(START + 5, BigDecimal.valueOf(20));
+
+        assertEquals(0, BigDecimal.valueOf(120).compareTo(window.last24h(START + 23)));
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(window.last24h(START + 24)));
+        assertEquals(0, BigDecimal.valueOf(120).compareTo(window.last30d(START + 24)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(window.last24h(START + 1000)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(window.last30d(START + 24 * 31)));
+    }
+
+    @Test
+    void tryAdd_rejectsBreachWithoutRecordingIt() {
+        SpendingWindow window = new SpendingWindow(START);
+        BigDecimal daily = BigDecimal.valueOf(100);
+        BigDecimal monthly = BigDecimal.valueOf(150);
+
+        window.tryAdd(START, BigDecimal.valueOf(100), daily, monthly);
+        ApiErrorException daySpent = assertThrows(ApiErrorException.class,
+                () -> window.tryAdd(START + 1, BigDecimal.ONE, daily, monthly));
+        assertEquals(ErrorStatus.DAILY_LIMIT_EXCEEDED, daySpent.getErrorStatus());
+
+        window.tryAdd(START + 48, BigDecimal.valueOf(50), daily, monthly);
+        ApiErrorException monthSpent = assertThrows(ApiErrorException.class,
+                () -> window.tryAdd(START + 96, BigDecimal.ONE, daily, monthly));
+        assertEquals(ErrorStatus.MONTHLY_LIMIT_EXCEEDED, monthSpent.getErrorStatus());
+        assertEquals(0, BigDecimal.valueOf(150).compareTo(window.last30d(START + 96)));
+    }
+}
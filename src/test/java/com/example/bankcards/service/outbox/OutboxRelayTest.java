@@ -0,0 +1,88 @@
+package com.example.bankcards.service.outbox;
+
+import com.example.bankcards.config.OutboxProperties;
+import com.example.bankcards.support.LiquibaseH2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRelayTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OutboxProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = LiquibaseH2.dataSource("outbox");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        properties = new OutboxProperties();
+        properties.setBatchSize(10);
+    }
+
+    @Test
+    void parallelRelays_publishEachMessageExactlyOnce() throws Exception {
+        insertMessages(500);
+        InMemoryOutboxSink sink = new InMemoryOutboxSink();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> relays = new java.util.ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                OutboxRelay relay = new OutboxRelay(properties, sink, jdbcTemplate, transactionTemplate);
+                relays.add(executor.submit(relay::relay));
+            }
+            for (Future<?> relay : relays) {
+                relay.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<OutboxMessage> published = sink.getPublished();
+        Set<Long> ids = new HashSet<>();
+        published.forEach(m -> ids.add(m.id()));
+        assertEquals(500, published.size());
+        assertEquals(500, ids.size());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class));
+    }
+
+    @Test
+    void sinkFailure_keepsMessagesForRetry() {
+        insertMessages(3);
+        OutboxRelay failing = new OutboxRelay(properties, messages -> {
+            throw new IllegalStateException("sink down");
+        }, jdbcTemplate, transactionTemplate);
+
+        failing.relay();
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class));
+
+        InMemoryOutboxSink sink = new InMemoryOutboxSink();
+        new OutboxRelay(properties, sink, jdbcTemplate, transactionTemplate).relay();
+
+        assertEquals(3, sink.getPublished().size());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class));
+    }
+
+    private void insertMessages(int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload, created_at) "
+                            + "VALUES ('CARD', ?, 'TRANSFER', '{}', ?)",
+                    (long) i, Timestamp.from(Instant.now()));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.bankcards.service.scheduled;
+
+import com.example.bankcards.config.ClockConfig;
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.config.HoldProperties;
+import com.example.bankcards.config.ScheduledTransferProperties;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.ScheduledTransferStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardReferenceResolver;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.balance.BalanceEngine;
+import com.example.bankcards.service.limit.SpendingLimitService;
+import com.example.bankcards.support.LiquibaseH2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Несколько плановых переводов с одной карты исполняются параллельно настоящим CardService. */
+@DataJpaTest(properties = {
+        "spring.liquibase.change-log=" + LiquibaseH2.CHANGE_LOG,
+        "spring.liquibase.contexts=test",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({EncryptionProperties.class, HoldProperties.class, ClockConfig.class, CardService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduledTransferDrainTest {
+
+    @MockBean
+    private SpendingLimitService spendingLimitService;
+
+    @MockBean
+    private CardReferenceResolver cardReferenceResolver;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectProvider<BalanceEngine> balanceEngineProvider;
+
+    private ScheduledTransferRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        ScheduledTransferProperties properties = new ScheduledTransferProperties();
+        properties.setBatchSize(10);
+        properties.setWorkers(10);
+        runner = new ScheduledTransferRunner(properties, cardService, jdbcTemplate, transactionTemplate,
+                Clock.systemDefaultZone(), balanceEngineProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.stop();
+        jdbcTemplate.update("DELETE FROM scheduled_transfer_runs");
+        scheduledTransferRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentSchedules_drainingOneCard_neverOverdraw() {
+        User owner = new User();
+        owner.setUsername("drain-owner");
+        owner.setPassword("secret");
+        owner.setRoles(Set.of(Role.ROLE_USER));
+        userRepository.save(owner);
+        Card source = card(owner, "4000000000002000", "100.00");
+        Card target = card(owner, "4000000000002001", "0.00");
+        for (int i = 0; i < 10; i++) {
+            scheduledTransferRepository.save(ScheduledTransfer.builder()
+                    .userId(owner.getId())
+                    .fromCardId(source.getId())
+                    .toCardId(target.getId())
+                    .amount(new BigDecimal("30.00"))
+                    .nextRunAt(LocalDateTime.now().minusMinutes(1))
+                    .status(ScheduledTransferStatus.ACTIVE)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+
+        assertEquals(10, runner.runDue());
+
+        assertEquals(0, new BigDecimal("10.00").compareTo(cardRepository.findBalanceById(source.getId()).orElseThrow()));
+        assertEquals(0, new BigDecimal("90.00").compareTo(cardRepository.findBalanceById(target.getId()).orElseThrow()));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM scheduled_transfer_runs WHERE outcome = 'SUCCESS'", Integer.class));
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM scheduled_transfer_runs WHERE outcome = 'INSUFFICIENT_FUNDS'", Integer.class));
+    }
+
+    private Card card(User owner, String number, String balance) {
+        Card card = new Card(null, number, LocalDate.now().plusYears(1), CardStatus.ACTIVE, new BigDecimal(balance), owner);
+        return cardRepository.save(card);
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.bankcards.service.scheduled;
+
+import com.example.bankcards.config.ScheduledTransferProperties;
+import com.example.bankcards.exception.ApiErrorException;
+import com.example.bankcards.exception.constant.ErrorStatus;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.balance.BalanceEngine;
+import com.example.bankcards.support.LiquibaseH2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ScheduledTransferRunnerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ScheduledTransferProperties properties;
+    private MutableClock clock;
+    private CardService cardService;
+    private ObjectProvider<BalanceEngine> balanceEngineProvider;
+    private final List<ScheduledTransferRunner> runners = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = LiquibaseH2.dataSource("scheduled");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.update("INSERT INTO users (id, username, password) VALUES (1, 'user1', 'secret')");
+
+        properties = new ScheduledTransferProperties();
+        properties.setBatchSize(10);
+        properties.setWorkers(4);
+        clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+        cardService = mock(CardService.class);
+        balanceEngineProvider = mock(ObjectProvider.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runners.forEach(ScheduledTransferRunner::stop);
+    }
+
+    @Test
+    void parallelRunners_executeEachDueTransferExactlyOnce() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            insert(i, null, START.minusMinutes(1));
+        }
+        Map<Long, AtomicInteger> calls = new ConcurrentHashMap<>();
+        doAnswer(inv -> {
+            assertEquals("user1", inv.<Authentication>getArgument(3).getName());
+            calls.computeIfAbsent(inv.<Long>getArgument(0), id -> new AtomicInteger()).incrementAndGet();
+            return null;
+        }).when(cardService).transferBetweenCards(anyLong(), anyLong(), any(), any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                ScheduledTransferRunner runner = runner();
+                results.add(executor.submit(runner::runDue));
+            }
+            int executed = 0;
+            for (Future<Integer> result : results) {
+                executed += result.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(200, executed);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(200, calls.size());
+        assertTrue(calls.values().stream().allMatch(c -> c.get() == 1));
+        assertEquals(200, count("SELECT COUNT(*) FROM scheduled_transfers WHERE status = 'COMPLETED'"));
+        assertEquals(200, count("SELECT COUNT(*) FROM scheduled_transfer_runs WHERE outcome = 'SUCCESS'"));
+    }
+
+    @Test
+    void recurringTransfer_runsOncePerPeriodAndSkipsMissedOccurrences() {
+        long id = insert(1, "P1D", START.minusDays(3));
+        ScheduledTransferRunner runner = runner();
+
+        assertEquals(1, runner.runDue());
+        assertEquals(START.plusDays(1), nextRunAt(id));
+        assertEquals(0, runner.runDue());
+
+        clock.set(START.plusDays(1));
+        assertEquals(1, runner.runDue());
+        assertEquals(START.plusDays(2), nextRunAt(id));
+        assertEquals("ACTIVE", status(id));
+        verify(cardService, times(2)).transferBetweenCards(eq(1L), eq(1001L), any(), any());
+    }
+
+    @Test
+    void futureTransfer_notExecutedBeforeItsTime() {
+        long id = insert(1, null, START.plusHours(2));
+        ScheduledTransferRunner runner = runner();
+
+        assertEquals(0, runner.runDue());
+        clock.set(START.plusHours(2));
+        assertEquals(1, runner.runDue());
+        assertEquals("COMPLETED", status(id));
+    }
+
+    @Test
+    void businessFailure_isRecordedAndScheduleAdvances() {
+        long oneShot = insert(1, null, START);
+        long recurring = insert(2, "P1M", START);
+        doThrow(new ApiErrorException(ErrorStatus.INSUFFICIENT_FUNDS))
+                .when(cardService).transferBetweenCards(anyLong(), anyLong(), any(), any());
+
+        assertEquals(2, runner().runDue());
+
+        assertEquals("FAILED", status(oneShot));
+        assertEquals("ACTIVE", status(recurring));
+        assertEquals(START.plusMonths(1), nextRunAt(recurring));
+        assertEquals(2, count("SELECT COUNT(*) FROM scheduled_transfers WHERE last_outcome = 'INSUFFICIENT_FUNDS'"));
+        assertEquals(2, count("SELECT COUNT(*) FROM scheduled_transfer_runs WHERE outcome = 'INSUFFICIENT_FUNDS'"));
+    }
+
+    @Test
+    void unexpectedFailure_retriedAfterLeaseExpires() {
+        long id = insert(1, null, START);
+        doThrow(new IllegalStateException("db down"))
+                .doNothing()
+                .when(cardService).transferBetweenCards(anyLong(), anyLong(), any(), any());
+        ScheduledTransferRunner runner = runner();
+
+        assertEquals(0, runner.runDue());
+        assertEquals(0, runner.runDue());
+        assertEquals("ACTIVE", status(id));
+
+        clock.set(START.plus(properties.getLease()).plusSeconds(1));
+        assertEquals(1, runner.runDue());
+        assertEquals("COMPLETED", status(id));
+        verify(cardService, times(2)).transferBetweenCards(anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    void cancelledDuringExecution_transferRolledBack() {
+        long id = insert(1, null, START);
+        // владелец отменяет перевод из другого запроса, пока перевод ещё не закоммичен
+        doAnswer(inv -> {
+            CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                    "UPDATE scheduled_transfers SET status = 'CANCELLED' WHERE id = ?", id)).join();
+            return null;
+        }).when(cardService).transferBetweenCards(anyLong(), anyLong(), any(), any());
+
+        assertEquals(0, runner().runDue());
+
+        assertEquals("CANCELLED", status(id));
+        assertEquals(0, count("SELECT COUNT(*) FROM scheduled_transfer_runs"));
+    }
+
+    @Test
+    void balanceEngineEnabled_refusesToStart() {
+        when(balanceEngineProvider.getIfAvailable()).thenReturn(mock(BalanceEngine.class));
+
+        assertThrows(IllegalStateException.class, () -> runner().failIfBalanceEngineEnabled());
+
+        properties.setEnabled(false);
+        assertDoesNotThrow(() -> runner().failIfBalanceEngineEnabled());
+    }
+
+    private ScheduledTransferRunner runner() {
+        ScheduledTransferRunner runner = new ScheduledTransferRunner(properties, cardService, jdbcTemplate,
+                transactionTemplate, clock, balanceEngineProvider);
+        runners.add(runner);
+        return runner;
+    }
+
+    private long insert(long fromCardId, String repeat, LocalDateTime nextRunAt) {
+        jdbcTemplate.update("INSERT INTO scheduled_transfers (user_id, from_card_id, to_card_id, amount, repeat_period, "
+                        + "next_run_at, status, created_at) VALUES (1, ?, ?, ?, ?, ?, 'ACTIVE', ?)",
+                fromCardId, fromCardId + 1000, new BigDecimal("10.00"), repeat,
+                Timestamp.valueOf(nextRunAt), Timestamp.valueOf(START));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM scheduled_transfers", Long.class);
+    }
+
+    private LocalDateTime nextRunAt(long id) {
+        return jdbcTemplate.queryForObject("SELECT next_run_at FROM scheduled_transfers WHERE id = ?",
+                Timestamp.class, id).toLocalDateTime();
+    }
+
+    private String status(long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM scheduled_transfers WHERE id = ?", String.class, id);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(LocalDateTime time) {
+            now = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.support;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+/**
+ * H2 в памяти со схемой из changelog приложения: JDBC-тесты работают с теми же таблицами,
+ * ограничениями и индексами, что и прод. Блоки {@code dbms: postgresql} (партиции, частичные
+ * индексы) на H2 пропускаются — их проверяют интеграционные тесты на PostgreSQL.
+ */
+public final class LiquibaseH2 {
+
+    public static final String CHANGE_LOG = "classpath:db/migration/changelog-1.0.yaml";
+
+    private LiquibaseH2() {
+    }
+
+    /** Новая база на каждый вызов; тестовые данные init-data не загружаются. */
+    public static DriverManagerDataSource dataSource(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(CHANGE_LOG);
+        liquibase.setContexts("test");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (LiquibaseException e) {
+            throw new IllegalStateException("Не удалось применить " + CHANGE_LOG + " к H2", e);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.EncryptionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardNumberEncryptorTest {
+
+    private static final String NUMBER = "4276123456789012";
+
+    @Test
+    void withoutKeyRing_writesLegacyFormat() {
+        CardNumberEncryptor encryptor = new CardNumberEncryptor(properties(null));
+
+        String stored = encryptor.convertToDatabaseColumn(NUMBER);
+
+        assertFalse(stored.contains(":"));
+        assertTrue(encryptor.isCurrent(stored));
+        assertEquals(NUMBER, encryptor.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void activeKey_prefixesCiphertext_andStillReadsOlderVersions() {
+        String legacy = new CardNumberEncryptor(properties(null)).convertToDatabaseColumn(NUMBER);
+        String v1 = new CardNumberEncryptor(properties("v1")).convertToDatabaseColumn(NUMBER);
+        CardNumberEncryptor encryptor = new CardNumberEncryptor(properties("v2"));
+
+        String stored = encryptor.convertToDatabaseColumn(NUMBER);
+
+        assertTrue(stored.startsWith("v2:"));
+        assertTrue(encryptor.isCurrent(stored));
+        assertFalse(encryptor.isCurrent(legacy));
+        assertFalse(encryptor.isCurrent(v1));
+        assertEquals(NUMBER, encryptor.convertToEntityAttribute(legacy));
+        assertEquals(NUMBER, encryptor.convertToEntityAttribute(v1));
+        assertEquals(stored, encryptor.reEncrypt(v1));
+    }
+
+    @Test
+    void encryptWithAllKeys_matchesEveryStoredVersion() {
+        String legacy = new CardNumberEncryptor(properties(null)).convertToDatabaseColumn(NUMBER);
+        String v1 = new CardNumberEncryptor(properties("v1")).convertToDatabaseColumn(NUMBER);
+        CardNumberEncryptor encryptor = new CardNumberEncryptor(properties("v2"));
+
+        List<String> variants = encryptor.encryptWithAllKeys(NUMBER);
+
+        assertTrue(variants.containsAll(List.of(legacy, v1, encryptor.convertToDatabaseColumn(NUMBER))));
+    }
+
+    @Test
+    void unknownActiveKey_failsFast() {
+        EncryptionProperties properties = properties(null);
+        properties.setActiveKeyId("v9");
+
+        assertThrows(IllegalStateException.class, () -> new CardNumberEncryptor(properties));
+    }
+
+    static EncryptionProperties properties(String activeKeyId) {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setAesKey("MySecretKey12345");
+        properties.setKeys(Map.of("v1", "RotatedKey_00001", "v2", "RotatedKey_00002"));
+        properties.setActiveKeyId(activeKeyId);
+        return properties;
+    }
+}
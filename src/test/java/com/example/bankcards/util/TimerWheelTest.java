@@ -0,0 +1,32 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void timersFireOnTheirTick_includingBeyondOneRevolution() {
+        TimerWheel<String> wheel = new TimerWheel<>(8, 100);
+        wheel.schedule("now", 0);
+        wheel.schedule("soon", 250);
+        wheel.schedule("later", 2_000);
+
+        List<Integer> firedAt = new ArrayList<>();
+        List<String> fired = new ArrayList<>();
+        for (int tick = 1; tick <= 30; tick++) {
+            for (String item : wheel.advance()) {
+                fired.add(item);
+                firedAt.add(tick);
+            }
+        }
+
+        assertEquals(List.of("now", "soon", "later"), fired);
+        assertEquals(List.of(1, 4, 21), firedAt);
+        assertEquals(0, wheel.size());
+    }
+}